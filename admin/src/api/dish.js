@@ -13,6 +13,19 @@ export function getDishList(query) {
   })
 }
 
+/**
+ * 游标分页获取菜品列表，不统计总数
+ * @param {Object} query 查询参数（cursor、pageSize及筛选条件，需要总数时传withTotal）
+ * @returns {Promise}
+ */
+export function getDishScroll(query) {
+  return request({
+    url: '/admin/dish/scroll',
+    method: 'get',
+    params: query
+  })
+}
+
 /**
  * 获取菜品详情
  * @param {number} id 菜品ID
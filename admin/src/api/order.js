@@ -1,4 +1,5 @@
 import request from '@/utils/request'
+import { getToken } from '@/utils/auth'
 
 /**
  * 获取订单列表
@@ -13,6 +14,19 @@ export function getOrderList(query) {
   })
 }
 
+/**
+ * 游标分页获取订单列表，不统计总数
+ * @param {Object} query 查询参数（cursor、pageSize及筛选条件，需要总数时传withTotal）
+ * @returns {Promise}
+ */
+export function getOrderScroll(query) {
+  return request({
+    url: '/admin/order/scroll',
+    method: 'get',
+    params: query
+  })
+}
+
 /**
  * 获取订单详情
  * @param {Number} id 订单ID
@@ -91,4 +105,14 @@ export function getRecentOrders(limit = 5) {
     method: 'get',
     params: { limit }
   })
-}
\ No newline at end of file
+}
+
+/**
+ * 订阅订单实时推送（SSE）
+ * EventSource无法设置请求头，token通过查询参数传递；断线后浏览器自动携带Last-Event-ID重连补发
+ * @returns {EventSource}
+ */
+export function openOrderStream() {
+  const baseURL = process.env.VUE_APP_BASE_API || ''
+  return new EventSource(`${baseURL}/admin/order/stream?token=${encodeURIComponent(getToken() || '')}`)
+}
@@ -75,4 +75,14 @@ export function generateQrCode(data) {
     method: 'post',
     data
   })
-} 
\ No newline at end of file
+} 
+/**
+ * 获取桌位平面图（实时占用状态和未结束订单数）
+ * @returns {Promise}
+ */
+export function getTableFloor() {
+  return request({
+    url: '/admin/table/floor',
+    method: 'get'
+  })
+}
@@ -127,6 +127,7 @@ App({
     windowHeight: 0,
     windowWidth: 0,
     tableId: null, // 当前桌位ID
+    bootstrap: null, // 扫码首屏数据（桌位、店铺信息、菜单、待支付订单）
     cartList: [], // 购物车数据
     loginStatusChecking: false, // 登录状态检查中标记
   }
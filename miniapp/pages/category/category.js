@@ -68,6 +68,18 @@ Page(auth.pageAuthMixin({
    * 加载分类列表
    */
   loadCategories() {
+    // 扫码时已获取完整菜单，直接使用
+    const menu = this.getBootstrapMenu();
+    if (menu) {
+      this.setData({
+        categories: menu,
+        currentCategory: menu.length > 0 ? menu[0].id : null,
+        dishes: menu.length > 0 ? (menu[0].dishes || []) : [],
+        isLoading: false
+      });
+      return;
+    }
+    
     this.setData({
       isLoading: true
     });
@@ -97,12 +109,31 @@ Page(auth.pageAuthMixin({
     });
   },
   
+  /**
+   * 获取扫码首屏数据中的菜单，没有时返回null
+   */
+  getBootstrapMenu() {
+    const bootstrap = app.globalData.bootstrap;
+    return bootstrap && Array.isArray(bootstrap.menu) && bootstrap.menu.length > 0 ? bootstrap.menu : null;
+  },
+  
   /**
    * 根据分类ID加载菜品
    */
   loadDishes(categoryId) {
     if (!categoryId) return;
     
+    // 优先使用扫码时获取的菜单
+    const menu = this.getBootstrapMenu();
+    const category = menu ? menu.find(item => item.id === categoryId) : null;
+    if (category) {
+      this.setData({
+        dishes: category.dishes || [],
+        isLoading: false
+      });
+      return;
+    }
+    
     this.setData({
       isLoading: true
     });
@@ -52,8 +52,12 @@ Page(auth.pageAuthMixin({
         }
       }
       
-      // 获取首页数据
-      this.fetchShopInfo();
+      // 获取首页数据，已扫码时一次请求获取首屏全部数据
+      if (options.table) {
+        this.fetchBootstrap(options.table);
+      } else {
+        this.fetchShopInfo();
+      }
     } catch (error) {
       console.error('页面加载异常:', error);
       // 出错时也要设置loading为false
@@ -147,6 +151,9 @@ Page(auth.pageAuthMixin({
             // 记录到全局数据
             app.globalData.tableId = table;
             
+            // 预加载首屏数据，进入点餐页时无需再请求菜单
+            this.fetchBootstrap(table);
+            
             wx.showToast({
               title: '桌号识别成功',
               icon: 'success'
@@ -265,12 +272,39 @@ Page(auth.pageAuthMixin({
     });
   },
   
+  // 扫码后一次获取桌位、店铺信息、菜单和待支付订单
+  fetchBootstrap: function(tableId) {
+    request.get('/mini/bootstrap/' + encodeURIComponent(tableId)).then(res => {
+      if (res.code === 1 && res.data) {
+        app.globalData.bootstrap = res.data;
+        this.setData({
+          loading: false,
+          shopInfo: res.data.shopInfo || this.data.shopInfo
+        });
+        if (!res.data.shopInfo && !this.data.shopInfo) {
+          this.fetchShopInfo();
+        }
+      } else {
+        app.globalData.bootstrap = null;
+        if (!this.data.shopInfo) {
+          this.fetchShopInfo();
+        }
+      }
+    }).catch(err => {
+      console.error('获取首屏数据失败', err);
+      app.globalData.bootstrap = null;
+      if (!this.data.shopInfo) {
+        this.fetchShopInfo();
+      }
+    });
+  },
+  
   // 获取店铺信息
   fetchShopInfo: function() {
     this.setData({ loading: true });
     
     console.log('开始请求店铺信息');
-    request.post('/mini/shop/info', {}).then(res => {
+    request.get('/mini/shop/info').then(res => {
       console.log('店铺信息响应:', res);
       if (res.code === 1 && res.data) {
         this.setData({
@@ -186,8 +186,13 @@ Page(auth.pageAuthMixin({
       orderData.tableId = this.data.tableId;
     }
     
+    // 同一次提交（包括失败后再次点击）使用同一个幂等键，避免重复下单
+    if (!this.createKey) {
+      this.createKey = request.createIdempotencyKey();
+    }
+    
     // 提交订单
-    request.post('/mini/order/create', orderData).then(res => {
+    request.post('/mini/order/create', orderData, true, this.createKey).then(res => {
       this.setData({
         isSubmitting: false
       });
@@ -195,6 +200,7 @@ Page(auth.pageAuthMixin({
       if (res.code === 1 && res.data) {
         // 订单创建成功
         const orderId = res.data;  // 直接使用 res.data 作为 orderId，不需要 res.data.id
+        this.createKey = null;
         
         // 清空购物车
         cartUtil.clearCart();
@@ -229,7 +235,7 @@ Page(auth.pageAuthMixin({
     request.post('/mini/order/pay', { 
       id: orderId,
       payMethod: this.data.selectedPayMethod || 1 // 使用选中的支付方式，默认为微信支付
-    }).then(res => {
+    }, true, request.createIdempotencyKey()).then(res => {
       if (res.code === 1) {
         // 已经支付成功的情况（服务器可能直接更新了订单状态）
         if (!res.data || Object.keys(res.data).length === 0) {
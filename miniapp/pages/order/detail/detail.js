@@ -46,6 +46,7 @@ Page({
             orderDetail: res.data,
             loading: false
           });
+          this.watchStatus(res.data.status);
         } else {
           wx.showToast({
             title: res.msg || '获取订单详情失败',
@@ -65,6 +66,46 @@ Page({
       });
   },
 
+  /**
+   * 等待订单状态变化（长轮询），状态变化后重新获取详情
+   * 服务端挂起请求直到状态变化或超时，超时返回原状态时继续等待
+   */
+  watchStatus: function (status) {
+    const ORDER_STATUS = constants.ORDER_STATUS;
+    if (this.unloaded || this.watching
+        || status === ORDER_STATUS.COMPLETED || status === ORDER_STATUS.CANCELLED) {
+      return;
+    }
+    this.watching = true;
+    
+    request.get(`/mini/order/${this.data.orderId}/await`, { since: status }, true)
+      .then(res => {
+        this.watching = false;
+        if (this.unloaded || res.code !== 1) {
+          return;
+        }
+        if (res.data !== status) {
+          this.fetchOrderDetail();
+        } else {
+          this.watchStatus(status);
+        }
+      })
+      .catch(() => {
+        this.watching = false;
+        // 网络异常时稍后重试
+        setTimeout(() => {
+          this.watchStatus(status);
+        }, 5000);
+      });
+  },
+
+  /**
+   * 生命周期函数--监听页面卸载
+   */
+  onUnload: function () {
+    this.unloaded = true;
+  },
+
   /**
    * 格式化日期时间
    */
@@ -91,7 +132,7 @@ Page({
     request.post('/mini/order/pay', { 
       id: this.data.orderId,
       payMethod: 1  // 微信支付
-    }, true)
+    }, true, request.createIdempotencyKey())
       .then(res => {
         wx.hideLoading();
         if (res.code === 1) {
@@ -9,7 +9,7 @@ Page({
     orderList: [],
     loading: true,
     loadingMore: false,
-    page: 1,
+    cursor: '',
     pageSize: 10,
     hasMore: true,
     statusMap: constants.ORDER_STATUS_MAP,
@@ -35,7 +35,7 @@ Page({
       this.setData({
         activeTab: tabId,
         orderList: [],
-        page: 1,
+        cursor: '',
         hasMore: true
       });
       this.fetchOrderList();
@@ -48,33 +48,34 @@ Page({
   fetchOrderList: function () {
     if (!this.data.hasMore || this.data.loadingMore) return;
     
-    const isFirstPage = this.data.page === 1;
+    const isFirstPage = !this.data.cursor;
     this.setData({
       loading: isFirstPage,
       loadingMore: !isFirstPage
     });
 
+    // 游标分页：首页不传cursor，之后回传上一页返回的nextCursor
     const params = {
-      page: this.data.page,
-      pageSize: this.data.pageSize,
-      userId: wx.getStorageSync('userId') || ''
+      pageSize: this.data.pageSize
     };
+    if (this.data.cursor) {
+      params.cursor = this.data.cursor;
+    }
     
     // 如果不是"全部"标签，则添加状态过滤
     if (this.data.activeTab > 0) {
       params.status = this.data.activeTab;
     }
     
-    request.get('/mini/order/list', params, true)
+    request.get('/mini/order/scroll', params, true)
       .then(res => {
         if (res.code === 1 && res.data) {
           const newList = [...this.data.orderList, ...res.data.records];
-          const hasMore = newList.length < res.data.total;
           
           this.setData({
             orderList: newList,
-            hasMore: hasMore,
-            page: hasMore ? this.data.page + 1 : this.data.page,
+            hasMore: res.data.hasMore,
+            cursor: res.data.nextCursor || '',
             loading: false,
             loadingMore: false
           });
@@ -135,7 +136,7 @@ Page({
     const orderId = e.currentTarget.dataset.id;
     wx.showLoading({ title: '发起支付' });
     
-    request.post('/mini/order/pay', { id: orderId }, true)
+    request.post('/mini/order/pay', { id: orderId }, true, request.createIdempotencyKey())
       .then(res => {
         wx.hideLoading();
         if (res.code === 1) {
@@ -149,7 +150,7 @@ Page({
             setTimeout(() => {
               this.setData({
                 orderList: [],
-                page: 1,
+                cursor: '',
                 hasMore: true
               });
               this.fetchOrderList();
@@ -175,7 +176,7 @@ Page({
               setTimeout(() => {
                 this.setData({
                   orderList: [],
-                  page: 1,
+                  cursor: '',
                   hasMore: true
                 });
                 this.fetchOrderList();
@@ -236,7 +237,7 @@ Page({
                 setTimeout(() => {
                   this.setData({
                     orderList: [],
-                    page: 1,
+                    cursor: '',
                     hasMore: true
                   });
                   this.fetchOrderList();
@@ -267,7 +268,7 @@ Page({
   onPullDownRefresh: function () {
     this.setData({
       orderList: [],
-      page: 1,
+      cursor: '',
       hasMore: true
     });
     this.fetchOrderList();
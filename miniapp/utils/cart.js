@@ -27,7 +27,7 @@ const addToCart = (dish, quantity = 1) => {
       id: dish.id,
       name: dish.name,
       price: price,
-      image: dish.image,
+      image: (dish.imageVariants && dish.imageVariants.thumbnail) || dish.image,
       specificationId: specificationId,
       specificationName: specificationName,
       quantity: quantity
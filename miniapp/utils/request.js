@@ -17,6 +17,44 @@ let isRefreshing = false;
 // 等待队列，存储token刷新期间的请求
 let waitQueue = [];
 
+// GET响应的ETag缓存：请求地址 -> { etag, data }，服务端返回304时直接使用缓存数据
+const etagCache = {};
+const etagCacheKeys = [];
+const ETAG_CACHE_MAX_SIZE = 50;
+
+// 携带幂等键的请求在网络失败时自动重试的次数，服务端对同一幂等键只执行一次
+const IDEMPOTENT_RETRY_TIMES = 2;
+
+/**
+ * 生成幂等键，同一次业务操作（包括重试）使用同一个幂等键
+ */
+const createIdempotencyKey = () => {
+  return Date.now().toString(36) + '-' + Math.random().toString(36).slice(2, 12);
+};
+
+/**
+ * 读取响应头中的ETag（响应头大小写不固定）
+ */
+const getETag = (header) => {
+  if (!header) {
+    return null;
+  }
+  return header['ETag'] || header['Etag'] || header['etag'] || null;
+};
+
+/**
+ * 保存ETag缓存，超过上限时淘汰最早的条目
+ */
+const putETagCache = (key, etag, data) => {
+  if (!etagCache[key]) {
+    etagCacheKeys.push(key);
+    if (etagCacheKeys.length > ETAG_CACHE_MAX_SIZE) {
+      delete etagCache[etagCacheKeys.shift()];
+    }
+  }
+  etagCache[key] = { etag, data };
+};
+
 /**
  * 刷新登录状态
  * @returns {Promise} 刷新结果
@@ -120,8 +158,8 @@ const refreshLogin = () => {
   });
 };
 
-// 统一的请求方法
-const request = (url, method, data, showLoading = true) => {
+// 统一的请求方法，idempotencyKey不为空时通过Idempotency-Key请求头发送
+const request = (url, method, data, showLoading = true, idempotencyKey = '') => {
   try {
     // 获取最新的app实例
     const app = getAppInstance();
@@ -194,6 +232,18 @@ const request = (url, method, data, showLoading = true) => {
       header['X-User-Id'] = userId;
     }
     
+    // 幂等键：网络失败后用同一幂等键重试，服务端直接返回首次结果
+    if (idempotencyKey) {
+      header['Idempotency-Key'] = idempotencyKey;
+    }
+    let idempotentRetries = idempotencyKey ? IDEMPOTENT_RETRY_TIMES : 0;
+    
+    // GET请求携带上次响应的ETag，内容未变化时服务端返回304
+    const etagKey = method === 'GET' ? fullUrl + '?' + JSON.stringify(data || {}) : null;
+    if (etagKey && etagCache[etagKey]) {
+      header['If-None-Match'] = etagCache[etagKey].etag;
+    }
+    
     // 返回Promise
     return new Promise((resolve, reject) => {
       // 发送请求的函数，增加retry参数用于尝试备用URL
@@ -212,8 +262,18 @@ const request = (url, method, data, showLoading = true) => {
                 
                 console.log(`【响应】${method} ${fullUrl}`, res);
                 
+                // 内容未变化，使用缓存数据
+                if (res.statusCode === 304 && etagKey && etagCache[etagKey]) {
+                  resolve(etagCache[etagKey].data);
+                  return;
+                }
+                
                 // 统一处理返回结果
                 if (res.statusCode === 200) {
+                  const etag = etagKey ? getETag(res.header) : null;
+                  if (etag && res.data && res.data.code === 1) {
+                    putETagCache(etagKey, etag, res.data);
+                  }
                   // 业务层面的成功与失败处理
                   if (res.data.code === 1) {
                     resolve(res.data);
@@ -356,6 +416,20 @@ const request = (url, method, data, showLoading = true) => {
                   }
                 }
                 
+                // 携带幂等键的请求用同一幂等键重试
+                if (idempotentRetries > 0) {
+                  idempotentRetries--;
+                  console.log(`【重试】幂等请求：${fullUrl}`);
+                  if (showLoading) {
+                    wx.showLoading({
+                      title: '加载中...',
+                      mask: true
+                    });
+                  }
+                  setTimeout(() => sendRequest(false), 500);
+                  return;
+                }
+                
                 reject(err);
               } catch (error) {
                 console.error('请求失败处理异常:', error);
@@ -393,8 +467,8 @@ const get = (url, data = {}, showLoading = true) => {
 };
 
 // POST请求
-const post = (url, data = {}, showLoading = true) => {
-  return request(url, 'POST', data, showLoading);
+const post = (url, data = {}, showLoading = true, idempotencyKey = '') => {
+  return request(url, 'POST', data, showLoading, idempotencyKey);
 };
 
 // PUT请求
@@ -409,6 +483,7 @@ const deleteRequest = (url, data = {}, showLoading = true) => {
 
 module.exports = {
   refreshLogin,
+  createIdempotencyKey,
   request,
   get,
   post,
@@ -0,0 +1,47 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 菜单目录版本号
+ * 本实例内单调递增，菜单和店铺信息的每次写操作提交后递增；
+ * 菜单快照构建时取一个新版本号，用于判断快照是否晚于某次提交。响应的ETag由内容摘要生成，不使用版本号
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    /**
+     * 获取当前版本号
+     * @return 版本号
+     */
+    public long current() {
+        return counter.get();
+    }
+
+    /**
+     * 递增并获取新版本号
+     * @return 新版本号
+     */
+    public long next() {
+        return counter.incrementAndGet();
+    }
+
+    /**
+     * 菜单目录变更提交后递增版本号并记入事件，先于各缓存的刷新执行；
+     * 同一事务内的多个事件先全部递增，缓存据此判断已有的快照是否晚于本次提交
+     * @param event 菜单变更事件
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        event.setCommitVersion(next());
+    }
+}
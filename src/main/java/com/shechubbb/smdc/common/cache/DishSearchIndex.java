@@ -0,0 +1,479 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.common.util.PinyinDictionary;
+import com.shechubbb.smdc.entity.Dish;
+import com.shechubbb.smdc.mapper.DishMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 菜品搜索索引
+ * 在内存中为全部菜品建立名称、全拼、首字母三类检索键，支持"红烧"、"hongshao"、"hsr"等输入；
+ * 检索键按单字和双字切分建立倒排表，依次按名称前缀、检索键前缀、子串、编辑距离排序。
+ * 本实例的菜品写操作提交后按行更新，超过最大存活时间时整体重新加载（兼顾多实例部署）
+ */
+@Slf4j
+@Component
+public class DishSearchIndex {
+
+    // 多音字组合的最大展开数，超出后其余汉字只取常用读音
+    private static final int MAX_VARIANTS = 16;
+
+    // 排序等级：名称前缀、检索键前缀、子串，编辑距离匹配在此基础上加距离
+    private static final int RANK_NAME_PREFIX = 0;
+    private static final int RANK_KEY_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int RANK_FUZZY = 3;
+
+    @Autowired
+    private DishMapper dishMapper;
+
+    // 索引最大存活时间，单位秒，与菜单快照保持一致
+    @Value("${smdc.menu.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Index index;
+
+    /**
+     * 搜索菜品
+     * @param keyword 关键字，可以是汉字、全拼或首字母
+     * @param limit 最大返回数量
+     * @return 按匹配程度排序的菜品ID
+     */
+    public List<Long> search(String keyword, int limit) {
+        return search(keyword, limit, null);
+    }
+
+    /**
+     * 搜索菜品，只返回满足条件的菜品
+     * 条件在截取数量之前判断，满足条件的菜品足够时总能返回limit个
+     * @param keyword 关键字，可以是汉字、全拼或首字母
+     * @param limit 最大返回数量
+     * @param filter 菜品ID过滤条件，为null时不过滤
+     * @return 按匹配程度排序的菜品ID
+     */
+    public List<Long> search(String keyword, int limit, Predicate<Long> filter) {
+        String query = normalize(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Index current = getIndex();
+
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (Long id : candidates(current, query)) {
+            if (filter != null && !filter.test(id)) {
+                continue;
+            }
+            Entry entry = current.entries.get(id);
+            if (entry != null) {
+                int rank = entry.rank(query);
+                if (rank >= 0) {
+                    ranks.put(id, rank);
+                }
+            }
+        }
+        // 没有精确匹配时按编辑距离查找，容忍输错一两个字母
+        int maxDistance = maxDistance(query);
+        if (ranks.isEmpty() && maxDistance > 0) {
+            for (Entry entry : current.entries.values()) {
+                if (!ranks.containsKey(entry.id) && (filter == null || filter.test(entry.id))) {
+                    int distance = entry.prefixDistance(query, maxDistance);
+                    if (distance <= maxDistance) {
+                        ranks.put(entry.id, RANK_FUZZY + distance);
+                    }
+                }
+            }
+        }
+
+        List<Entry> matched = new ArrayList<>(ranks.size());
+        for (Long id : ranks.keySet()) {
+            matched.add(current.entries.get(id));
+        }
+        matched.sort(Comparator.<Entry>comparingInt(entry -> ranks.get(entry.id))
+                .thenComparingInt(entry -> entry.sort)
+                .thenComparingLong(entry -> entry.id));
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, matched.size()));
+        for (Entry entry : matched) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    /**
+     * 重新加载全部菜品
+     */
+    public void reload() {
+        loadLock.lock();
+        try {
+            index = load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 菜品变更事务提交后更新索引
+     * 事件带菜品ID时只更新该行，否则整体重新加载
+     * @param event 菜单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getTarget() != CatalogChangedEvent.Target.DISH || index == null) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            Index current = index;
+            if (current == null) {
+                return;
+            }
+            if (event.getId() == null) {
+                index = load();
+                return;
+            }
+            Dish dish = dishMapper.selectById(event.getId());
+            index = current.with(event.getId(), dish != null ? new Entry(dish) : null);
+        } catch (Exception e) {
+            // 更新失败时丢弃索引，下次搜索重新加载
+            index = null;
+            log.error("菜品搜索索引更新失败，dishId={}", event.getId(), e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前索引，首次使用时加载，过期时由一个请求线程重新加载
+     */
+    private Index getIndex() {
+        Index current = index;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        } else if (maxAgeSeconds > 0
+                && System.nanoTime() - current.loadNanos > TimeUnit.SECONDS.toNanos(maxAgeSeconds)
+                && loadLock.tryLock()) {
+            try {
+                if (index == current) {
+                    current = load();
+                    index = current;
+                }
+            } catch (Exception e) {
+                log.warn("菜品搜索索引重新加载失败，继续使用旧索引", e);
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 从数据库加载全部菜品
+     */
+    private Index load() {
+        long loadNanos = System.nanoTime();
+        List<Dish> dishes = dishMapper.selectList(null);
+        Map<Long, Entry> entries = new HashMap<>();
+        for (Dish dish : dishes) {
+            entries.put(dish.getId(), new Entry(dish));
+        }
+        log.info("菜品搜索索引已加载，菜品数={}", entries.size());
+        return new Index(entries, loadNanos);
+    }
+
+    /**
+     * 倒排表召回：单字查询取单字倒排，否则取全部双字倒排的交集
+     */
+    private static Collection<Long> candidates(Index index, String query) {
+        if (query.length() == 1) {
+            Set<Long> ids = index.postings.get(query);
+            return ids != null ? ids : Collections.<Long>emptySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query, 2)) {
+            Set<Long> ids = index.postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        // 从最短的倒排表开始求交集
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 按查询长度确定允许的编辑距离，过短的查询不做模糊匹配
+     */
+    private static int maxDistance(String query) {
+        if (query.length() < 3) {
+            return 0;
+        }
+        return query.length() < 6 ? 1 : 2;
+    }
+
+    /**
+     * 统一大小写并去除空白和标点
+     */
+    static String normalize(String text) {
+        if (StringUtils.isBlank(text)) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 生成菜品名称的全部检索键：名称本身、全拼、首字母，多音字按组合展开
+     */
+    static Set<String> keys(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+
+        List<StringBuilder> fulls = new ArrayList<>();
+        List<StringBuilder> initials = new ArrayList<>();
+        fulls.add(new StringBuilder());
+        initials.add(new StringBuilder());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            String[] readings = PinyinDictionary.readings(c);
+            if (readings == null) {
+                // 字母、数字及字表外的字符原样保留
+                readings = new String[]{String.valueOf(c)};
+            }
+            if (readings.length == 1 || fulls.size() * readings.length > MAX_VARIANTS) {
+                for (int v = 0; v < fulls.size(); v++) {
+                    fulls.get(v).append(readings[0]);
+                    initials.get(v).append(readings[0].charAt(0));
+                }
+                continue;
+            }
+            List<StringBuilder> nextFulls = new ArrayList<>();
+            List<StringBuilder> nextInitials = new ArrayList<>();
+            for (int v = 0; v < fulls.size(); v++) {
+                for (String reading : readings) {
+                    nextFulls.add(new StringBuilder(fulls.get(v)).append(reading));
+                    nextInitials.add(new StringBuilder(initials.get(v)).append(reading.charAt(0)));
+                }
+            }
+            fulls = nextFulls;
+            initials = nextInitials;
+        }
+        for (StringBuilder full : fulls) {
+            keys.add(full.toString());
+        }
+        for (StringBuilder initial : initials) {
+            keys.add(initial.toString());
+        }
+        return keys;
+    }
+
+    /**
+     * 切分长度为n的连续子串
+     */
+    private static Set<String> grams(String text, int n) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + n <= text.length(); i++) {
+            grams.add(text.substring(i, i + n));
+        }
+        return grams;
+    }
+
+    /**
+     * 单个菜品的检索信息
+     */
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final int sort;
+        private final List<String> keys;
+
+        private Entry(Dish dish) {
+            this.id = dish.getId();
+            this.name = normalize(dish.getName());
+            this.sort = dish.getSort() != null ? dish.getSort() : Integer.MAX_VALUE;
+            this.keys = Collections.unmodifiableList(new ArrayList<>(keys(dish.getName())));
+        }
+
+        /**
+         * 单字和双字切分，用于倒排表
+         */
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String key : keys) {
+                grams.addAll(DishSearchIndex.grams(key, 1));
+                grams.addAll(DishSearchIndex.grams(key, 2));
+            }
+            return grams;
+        }
+
+        /**
+         * 精确匹配等级，不匹配时返回-1
+         */
+        private int rank(String query) {
+            if (name.startsWith(query)) {
+                return RANK_NAME_PREFIX;
+            }
+            int rank = -1;
+            for (String key : keys) {
+                if (key.startsWith(query)) {
+                    return RANK_KEY_PREFIX;
+                }
+                if (rank < 0 && key.contains(query)) {
+                    rank = RANK_SUBSTRING;
+                }
+            }
+            return rank;
+        }
+
+        /**
+         * 查询与各检索键前缀之间的最小编辑距离，超过上限时提前结束
+         */
+        private int prefixDistance(String query, int maxDistance) {
+            int best = maxDistance + 1;
+            for (String key : keys) {
+                best = Math.min(best, prefixDistance(query, key, best - 1));
+                if (best == 0) {
+                    break;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * 查询与检索键任一前缀的最小编辑距离，结果大于limit时返回limit+1
+         */
+        private static int prefixDistance(String query, String key, int limit) {
+            int[] previous = new int[query.length() + 1];
+            int[] current = new int[query.length() + 1];
+            for (int i = 0; i <= query.length(); i++) {
+                previous[i] = i;
+            }
+            int best = previous[query.length()];
+            int maxPrefix = Math.min(key.length(), query.length() + limit);
+            for (int j = 1; j <= maxPrefix; j++) {
+                current[0] = j;
+                int rowMin = current[0];
+                char k = key.charAt(j - 1);
+                for (int i = 1; i <= query.length(); i++) {
+                    int cost = query.charAt(i - 1) == k ? 0 : 1;
+                    current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                    rowMin = Math.min(rowMin, current[i]);
+                }
+                best = Math.min(best, current[query.length()]);
+                if (rowMin > limit) {
+                    break;
+                }
+                int[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+            return Math.min(best, limit + 1);
+        }
+    }
+
+    /**
+     * 搜索索引，构建完成后只读，单行更新时复制变更部分生成新索引
+     */
+    private static final class Index {
+        private final Map<Long, Entry> entries;
+        private final Map<String, Set<Long>> postings;
+        private final long loadNanos;
+
+        private Index(Map<Long, Entry> entries, long loadNanos) {
+            Map<String, Set<Long>> postings = new HashMap<>();
+            for (Entry entry : entries.values()) {
+                for (String gram : entry.grams()) {
+                    postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id);
+                }
+            }
+            this.entries = Collections.unmodifiableMap(entries);
+            this.postings = Collections.unmodifiableMap(postings);
+            this.loadNanos = loadNanos;
+        }
+
+        private Index(Map<Long, Entry> entries, Map<String, Set<Long>> postings, long loadNanos) {
+            this.entries = Collections.unmodifiableMap(entries);
+            this.postings = Collections.unmodifiableMap(postings);
+            this.loadNanos = loadNanos;
+        }
+
+        /**
+         * 替换或删除单个菜品，只复制受影响的倒排表
+         * @param id 菜品ID
+         * @param entry 新的检索信息，为null时删除
+         */
+        private Index with(Long id, Entry entry) {
+            Map<Long, Entry> nextEntries = new HashMap<>(entries);
+            Map<String, Set<Long>> nextPostings = new HashMap<>(postings);
+            Entry previous = entry != null ? nextEntries.put(id, entry) : nextEntries.remove(id);
+            if (previous != null) {
+                for (String gram : previous.grams()) {
+                    Set<Long> ids = new HashSet<>(nextPostings.get(gram));
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        nextPostings.remove(gram);
+                    } else {
+                        nextPostings.put(gram, ids);
+                    }
+                }
+            }
+            if (entry != null) {
+                for (String gram : entry.grams()) {
+                    Set<Long> ids = nextPostings.get(gram);
+                    ids = ids != null ? new HashSet<>(ids) : new HashSet<>();
+                    ids.add(id);
+                    nextPostings.put(gram, ids);
+                }
+            }
+            return new Index(nextEntries, nextPostings, loadNanos);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.ExpiringCache;
+import com.shechubbb.smdc.entity.IdempotencyRecord;
+import com.shechubbb.smdc.mapper.IdempotencyRecordMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求存储
+ * 客户端用Idempotency-Key请求头标识一次业务操作，同一用户、同一接口、同一幂等键的重试直接返回首次成功的结果，不再执行业务；
+ * 结果先查本地有界缓存，未命中时由数据库唯一索引(user_id, scope, idem_key)兜底，多实例部署和实例重启后仍只执行一次。
+ * 失败的结果不保存，客户端可以用同一幂等键重试。
+ * 记录保存请求体指纹，同一幂等键携带不同请求体时拒绝而不是返回首次的结果；
+ * 处理中的记录只在租约期内有效，实例崩溃或释放失败遗留的记录超过租约后可由重试接管
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    /**
+     * 幂等键请求头
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final int STATUS_PROCESSING = 0;
+
+    private static final int STATUS_DONE = 1;
+
+    // 每新增多少条记录清理一次过期记录
+    private static final int PURGE_INTERVAL = 1000;
+
+    private static final String IN_PROGRESS_MESSAGE = "请求正在处理中，请勿重复提交";
+
+    private static final String MISMATCH_MESSAGE = "幂等键已用于其他请求，请重新生成";
+
+    @Autowired
+    private IdempotencyRecordMapper idempotencyRecordMapper;
+
+    // 与Spring MVC共用的ObjectMapper，保存的结果与接口直接返回时一致
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 本地结果缓存的最大条目数
+    @Value("${smdc.order.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // 幂等键有效期，单位小时，过期后同一幂等键视为新请求
+    @Value("${smdc.order.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    // 处理中记录的租约，单位秒，超过后视为遗留记录，可由重试接管
+    @Value("${smdc.order.idempotency.processing-lease-seconds:60}")
+    private long processingLeaseSeconds;
+
+    // 值为首次成功的结果，处理中时结果为null
+    private ExpiringCache<String, Entry> entries;
+
+    private final AtomicInteger inserted = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        entries = new ExpiringCache<>(cacheSize, TimeUnit.HOURS.toMillis(ttlHours));
+    }
+
+    /**
+     * 幂等执行业务
+     * @param userId 当前用户ID
+     * @param scope 接口范围，不同接口的幂等键互不影响
+     * @param key 幂等键，为空时直接执行业务
+     * @param request 请求体，用于判断同一幂等键的请求是否一致
+     * @param type 结果类型，用于从数据库记录还原结果
+     * @param action 业务操作
+     * @return 首次成功的结果或本次执行的结果
+     */
+    public <T> Result<T> execute(Long userId, String scope, String key, Object request,
+                                 TypeReference<Result<T>> type, Supplier<Result<T>> action) {
+        if (key == null || key.trim().isEmpty()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("幂等键长度不能超过" + MAX_KEY_LENGTH);
+        }
+
+        String fingerprint = fingerprint(request);
+        String cacheKey = scope + ':' + userId + ':' + key;
+        Entry existing = entries.putIfAbsent(cacheKey, new Entry(null, fingerprint));
+        if (existing != null) {
+            if (!fingerprint.equals(existing.fingerprint)) {
+                return Result.error(MISMATCH_MESSAGE);
+            }
+            return replay(existing);
+        }
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setScope(scope);
+        record.setIdemKey(key);
+        record.setFingerprint(fingerprint);
+        record.setStatus(STATUS_PROCESSING);
+        record.setCreateTime(LocalDateTime.now());
+
+        IdempotencyRecord stored;
+        try {
+            stored = insertOrFind(record);
+        } catch (RuntimeException e) {
+            entries.invalidate(cacheKey);
+            throw e;
+        }
+        if (stored != null) {
+            // 其他实例已处理或正在处理
+            entries.invalidate(cacheKey);
+            if (stored.getFingerprint() != null && !stored.getFingerprint().equals(fingerprint)) {
+                return Result.error(MISMATCH_MESSAGE);
+            }
+            if (stored.getStatus() != null && stored.getStatus() == STATUS_DONE) {
+                Result<T> result = readResult(stored.getResponse(), type);
+                entries.put(cacheKey, new Entry(result, fingerprint));
+                return result;
+            }
+            return Result.error(IN_PROGRESS_MESSAGE);
+        }
+
+        Result<T> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            release(cacheKey, record);
+            throw e;
+        }
+        if (result == null || result.getCode() == null || result.getCode() != 1) {
+            release(cacheKey, record);
+            return result;
+        }
+        entries.put(cacheKey, new Entry(result, fingerprint));
+        complete(record, result);
+        return result;
+    }
+
+    /**
+     * 本地缓存中的条目数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> replay(Entry entry) {
+        if (entry.result == null) {
+            return Result.error(IN_PROGRESS_MESSAGE);
+        }
+        return (Result<T>) entry.result;
+    }
+
+    /**
+     * 插入处理中记录，幂等键已存在时返回已有记录，插入或接管成功时返回null
+     * 已过期的记录删除后重新插入，租约已过的处理中记录按原创建时间条件更新接管，多个重试只有一个成功
+     */
+    private IdempotencyRecord insertOrFind(IdempotencyRecord record) {
+        try {
+            idempotencyRecordMapper.insert(record);
+            afterInsert();
+            return null;
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord stored = idempotencyRecordMapper.selectOne(new LambdaQueryWrapper<IdempotencyRecord>()
+                    .eq(IdempotencyRecord::getUserId, record.getUserId())
+                    .eq(IdempotencyRecord::getScope, record.getScope())
+                    .eq(IdempotencyRecord::getIdemKey, record.getIdemKey()));
+            if (stored == null || stored.getCreateTime() == null) {
+                return stored != null ? stored : processing();
+            }
+            if (!stored.getCreateTime().isBefore(expiredBefore())) {
+                return isStaleProcessing(stored, record) && takeOver(stored, record) ? null : stored;
+            }
+            idempotencyRecordMapper.deleteById(stored.getId());
+            try {
+                idempotencyRecordMapper.insert(record);
+                return null;
+            } catch (DuplicateKeyException retry) {
+                return processing();
+            }
+        }
+    }
+
+    /**
+     * 判断已有记录是否为租约已过、且请求体一致的处理中记录
+     */
+    private boolean isStaleProcessing(IdempotencyRecord stored, IdempotencyRecord record) {
+        return stored.getStatus() != null && stored.getStatus() == STATUS_PROCESSING
+                && (stored.getFingerprint() == null || stored.getFingerprint().equals(record.getFingerprint()))
+                && stored.getCreateTime().isBefore(LocalDateTime.now().minusSeconds(processingLeaseSeconds));
+    }
+
+    /**
+     * 接管遗留的处理中记录，以原创建时间为条件，并发接管时只有一个成功
+     */
+    private boolean takeOver(IdempotencyRecord stored, IdempotencyRecord record) {
+        IdempotencyRecord update = new IdempotencyRecord();
+        update.setFingerprint(record.getFingerprint());
+        update.setCreateTime(record.getCreateTime());
+        int updated = idempotencyRecordMapper.update(update, new LambdaQueryWrapper<IdempotencyRecord>()
+                .eq(IdempotencyRecord::getId, stored.getId())
+                .eq(IdempotencyRecord::getStatus, STATUS_PROCESSING)
+                .eq(IdempotencyRecord::getCreateTime, stored.getCreateTime()));
+        if (updated != 1) {
+            return false;
+        }
+        log.info("接管遗留的幂等记录，scope={}，key={}", record.getScope(), record.getIdemKey());
+        record.setId(stored.getId());
+        return true;
+    }
+
+    /**
+     * 保存成功结果，保存失败时本实例仍可从本地缓存返回结果
+     */
+    private void complete(IdempotencyRecord record, Result<?> result) {
+        try {
+            IdempotencyRecord update = new IdempotencyRecord();
+            update.setId(record.getId());
+            update.setStatus(STATUS_DONE);
+            update.setResponse(objectMapper.writeValueAsString(result));
+            idempotencyRecordMapper.updateById(update);
+        } catch (Exception e) {
+            log.warn("保存幂等结果失败，scope={}，key={}", record.getScope(), record.getIdemKey(), e);
+        }
+    }
+
+    /**
+     * 业务失败时释放幂等键，允许客户端重试
+     */
+    private void release(String cacheKey, IdempotencyRecord record) {
+        entries.invalidate(cacheKey);
+        try {
+            idempotencyRecordMapper.deleteById(record.getId());
+        } catch (Exception e) {
+            log.warn("释放幂等键失败，scope={}，key={}", record.getScope(), record.getIdemKey(), e);
+        }
+    }
+
+    private <T> Result<T> readResult(String response, TypeReference<Result<T>> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (Exception e) {
+            log.error("解析幂等结果失败，response={}", response, e);
+            throw new BusinessException("请求结果读取失败，请刷新后查看");
+        }
+    }
+
+    /**
+     * 定期清理过期记录
+     */
+    private void afterInsert() {
+        if (inserted.incrementAndGet() % PURGE_INTERVAL != 0) {
+            return;
+        }
+        try {
+            int deleted = idempotencyRecordMapper.delete(new LambdaQueryWrapper<IdempotencyRecord>()
+                    .lt(IdempotencyRecord::getCreateTime, expiredBefore()));
+            log.info("已清理过期幂等记录，数量={}", deleted);
+        } catch (Exception e) {
+            log.warn("清理过期幂等记录失败", e);
+        }
+    }
+
+    /**
+     * 请求体指纹，请求体序列化后的SHA-256
+     */
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("计算请求指纹失败", e);
+        }
+    }
+
+    private LocalDateTime expiredBefore() {
+        return LocalDateTime.now().minusHours(ttlHours);
+    }
+
+    private static IdempotencyRecord processing() {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setStatus(STATUS_PROCESSING);
+        return record;
+    }
+
+    /**
+     * 本地缓存条目
+     */
+    private static final class Entry {
+        private final Result<?> result;
+        private final String fingerprint;
+
+        private Entry(Result<?> result, String fingerprint) {
+            this.result = result;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
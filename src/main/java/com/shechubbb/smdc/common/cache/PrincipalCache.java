@@ -0,0 +1,169 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.common.util.ExpiringCache;
+import com.shechubbb.smdc.entity.Employee;
+import com.shechubbb.smdc.entity.User;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 登录身份缓存
+ * 缓存JWT认证时加载的用户和员工，热请求认证不再查询数据库；
+ * 存取均复制对象，调用方修改上下文中的对象（如清空密码）不会影响缓存；
+ * 每次移除都递增按ID分段的失效计数，加载前读取计数，写入时计数已变化则放弃，
+ * 避免与移除并发的加载把旧数据写回缓存
+ */
+@Component
+public class PrincipalCache {
+
+    // 每类身份缓存的最大条目数
+    @Value("${smdc.auth.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    // 身份缓存存活时间，单位秒
+    @Value("${smdc.auth.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // 失效计数的分段数，须为2的幂
+    private static final int STAMP_STRIPES = 1024;
+
+    private ExpiringCache<Long, User> userCache;
+
+    private ExpiringCache<Long, Employee> employeeCache;
+
+    private final AtomicLongArray userStamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final AtomicLongArray employeeStamps = new AtomicLongArray(STAMP_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        userCache = new ExpiringCache<>(maxSize, ttlMillis);
+        employeeCache = new ExpiringCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * 获取缓存的用户
+     * @param id 用户ID
+     * @return 用户副本，未缓存时返回null
+     */
+    public User getUser(Long id) {
+        User user = userCache.get(id);
+        return user != null ? copy(user, new User()) : null;
+    }
+
+    /**
+     * 获取用户的失效计数，须在从数据库加载用户之前读取
+     * @param id 用户ID
+     * @return 失效计数
+     */
+    public long userStamp(Long id) {
+        return userStamps.get(stripe(id));
+    }
+
+    /**
+     * 缓存用户，加载期间用户被移除过时不写入
+     * @param user 用户信息
+     * @param stamp 加载前读取的失效计数
+     */
+    public void putUser(User user, long stamp) {
+        if (user != null && user.getId() != null) {
+            put(userCache, userStamps, user.getId(), copy(user, new User()), stamp);
+        }
+    }
+
+    /**
+     * 移除缓存的用户
+     * @param id 用户ID
+     */
+    public void invalidateUser(Long id) {
+        if (id != null) {
+            invalidate(userCache, userStamps, id);
+        }
+    }
+
+    /**
+     * 获取缓存的员工
+     * @param id 员工ID
+     * @return 员工副本，未缓存时返回null
+     */
+    public Employee getEmployee(Long id) {
+        Employee employee = employeeCache.get(id);
+        return employee != null ? copy(employee, new Employee()) : null;
+    }
+
+    /**
+     * 获取员工的失效计数，须在从数据库加载员工之前读取
+     * @param id 员工ID
+     * @return 失效计数
+     */
+    public long employeeStamp(Long id) {
+        return employeeStamps.get(stripe(id));
+    }
+
+    /**
+     * 缓存员工，加载期间员工被移除过时不写入
+     * @param employee 员工信息
+     * @param stamp 加载前读取的失效计数
+     */
+    public void putEmployee(Employee employee, long stamp) {
+        if (employee != null && employee.getId() != null) {
+            put(employeeCache, employeeStamps, employee.getId(), copy(employee, new Employee()), stamp);
+        }
+    }
+
+    /**
+     * 移除缓存的员工
+     * @param id 员工ID
+     */
+    public void invalidateEmployee(Long id) {
+        if (id != null) {
+            invalidate(employeeCache, employeeStamps, id);
+        }
+    }
+
+    public ExpiringCache<Long, User> getUserCache() {
+        return userCache;
+    }
+
+    public ExpiringCache<Long, Employee> getEmployeeCache() {
+        return employeeCache;
+    }
+
+    /**
+     * 计数未变化时写入缓存；写入后再次检查计数，
+     * 与写入并发的移除要么被这次检查发现，要么在写入之后移除条目
+     */
+    private static <T> void put(ExpiringCache<Long, T> cache, AtomicLongArray stamps, Long id, T value, long stamp) {
+        int stripe = stripe(id);
+        if (stamps.get(stripe) != stamp) {
+            return;
+        }
+        cache.put(id, value);
+        if (stamps.get(stripe) != stamp) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * 先递增计数再移除条目
+     */
+    private static <T> void invalidate(ExpiringCache<Long, T> cache, AtomicLongArray stamps, Long id) {
+        stamps.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STAMP_STRIPES - 1);
+    }
+
+    private static <T> T copy(T source, T target) {
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+}
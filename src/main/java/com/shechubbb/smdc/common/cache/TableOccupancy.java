@@ -0,0 +1,385 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.shechubbb.smdc.common.constant.OrderStatusConstant;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import com.shechubbb.smdc.mapper.TableInfoMapper;
+import com.shechubbb.smdc.service.TableInfoService;
+import com.shechubbb.smdc.vo.TableFloorVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 桌位占用引擎
+ * 按桌位统计未结束（待付款、已支付）的订单数，下单加一，取消、超时取消、完成减一，同一桌位的多个订单全部结束后才空闲；
+ * 计数由订单事件在事务提交后无锁更新，只有空闲/使用中发生变化的桌位才写回table_info，并由后台线程按状态合并为批量更新。
+ * 启动时和每隔一段时间根据订单表重新统计，兜底同步其他实例的订单。
+ * 多实例部署时各实例只统计本实例的订单事件，写回空闲前会复核订单表，仍有未结束订单（如其他实例下的单）的桌位不写空闲
+ */
+@Slf4j
+@Component
+public class TableOccupancy {
+
+    private static final List<Integer> OPEN_STATUSES =
+            Arrays.asList(OrderStatusConstant.PENDING_PAYMENT, OrderStatusConstant.PAID);
+
+    private static final int FREE = 0;
+
+    private static final int OCCUPIED = 1;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private TableInfoMapper tableInfoMapper;
+
+    @Autowired
+    private TableResolver tableResolver;
+
+    @Autowired
+    private TableInfoService tableInfoService;
+
+    // 写回间隔，单位毫秒
+    @Value("${smdc.table.occupancy.flush-millis:500}")
+    private long flushMillis;
+
+    // 重新统计间隔，单位秒，0表示只在启动时统计
+    @Value("${smdc.table.occupancy.reconcile-seconds:300}")
+    private long reconcileSeconds;
+
+    private volatile State state = new State();
+
+    // 重新统计期间发生的变更，统计完成后补充到新的计数中
+    private volatile Queue<Change> journal;
+
+    // 空闲/使用中发生变化、等待写回的桌位
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // 数据库中的桌位状态，未记录的桌位视为空闲（新增桌位默认空闲）
+    private final Map<Long, Integer> persisted = new ConcurrentHashMap<>();
+
+    // 首次统计完成前不写回，避免把有订单的桌位写成空闲
+    private volatile boolean loaded;
+
+    // 写回和重新统计都在该线程执行
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "table-occupancy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        if (reconcileSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::reconcile, reconcileSeconds, reconcileSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * 启动完成后统计未结束订单，失败时等待下次重新统计
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(this::reconcile);
+    }
+
+    /**
+     * 订单事务提交后更新桌位计数
+     * @param event 订单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        Change change;
+        switch (event.getType()) {
+            case CREATE:
+                if (event.getTableId() == null) {
+                    return;
+                }
+                change = new Change(event.getOrderId(), event.getTableId());
+                break;
+            case CANCEL:
+            case EXPIRE:
+            case COMPLETE:
+                change = new Change(event.getOrderId(), null);
+                break;
+            default:
+                return;
+        }
+        Queue<Change> pending = journal;
+        if (pending != null) {
+            pending.add(change);
+        }
+        apply(state, change);
+    }
+
+    /**
+     * 桌位未结束的订单数
+     * @param tableId 桌位ID
+     * @return 订单数
+     */
+    public int getOpenOrders(Long tableId) {
+        AtomicInteger count = state.counts.get(tableId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * 等待写回的桌位数
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * 桌位平面图快照
+     * 首次统计完成前使用数据库中的桌位状态
+     * @return 按ID排序的全部桌位及占用情况
+     */
+    public List<TableFloorVO> floor() {
+        List<TableInfo> tables = tableResolver.all();
+        List<TableFloorVO> floor = new ArrayList<>(tables.size());
+        for (TableInfo tableInfo : tables) {
+            int openOrders = getOpenOrders(tableInfo.getId());
+            TableFloorVO vo = new TableFloorVO();
+            vo.setId(tableInfo.getId());
+            vo.setName(tableInfo.getName());
+            vo.setCode(tableInfo.getCode());
+            vo.setOpenOrders(openOrders);
+            vo.setStatus(loaded ? (openOrders > 0 ? OCCUPIED : FREE) : tableInfo.getStatus());
+            floor.add(vo);
+        }
+        return floor;
+    }
+
+    /**
+     * 根据订单表重新统计，并与数据库中的桌位状态比较
+     * 统计期间的变更记入journal，切换到新计数后补充，变更按订单幂等，重复补充不影响结果
+     */
+    void reconcile() {
+        Queue<Change> pending = new ConcurrentLinkedQueue<>();
+        journal = pending;
+        State fresh;
+        List<TableInfo> tables;
+        try {
+            fresh = load();
+            // 直接读取数据库中的桌位状态，桌位索引可能尚未刷新
+            tables = tableInfoMapper.selectList(new LambdaQueryWrapper<TableInfo>()
+                    .select(TableInfo::getId, TableInfo::getStatus));
+            state = fresh;
+        } catch (Exception e) {
+            log.warn("桌位占用统计失败，等待下次重新统计", e);
+            return;
+        } finally {
+            journal = null;
+        }
+        Change change;
+        while ((change = pending.poll()) != null) {
+            apply(fresh, change);
+        }
+
+        for (TableInfo tableInfo : tables) {
+            if (tableInfo.getStatus() != null) {
+                persisted.put(tableInfo.getId(), tableInfo.getStatus());
+            }
+            dirty.add(tableInfo.getId());
+        }
+        loaded = true;
+        flush();
+    }
+
+    /**
+     * 写回状态发生变化的桌位，使用中和空闲各一条批量更新语句
+     */
+    void flush() {
+        if (!loaded || dirty.isEmpty()) {
+            return;
+        }
+        List<Long> occupied = new ArrayList<>();
+        List<Long> free = new ArrayList<>();
+        Iterator<Long> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            Long tableId = iterator.next();
+            iterator.remove();
+            int status = getOpenOrders(tableId) > 0 ? OCCUPIED : FREE;
+            if (persisted.getOrDefault(tableId, FREE) != status) {
+                (status == OCCUPIED ? occupied : free).add(tableId);
+            }
+        }
+        write(occupied, OCCUPIED);
+        write(verifyFree(free), FREE);
+    }
+
+    /**
+     * 写回空闲前复核订单表，去掉仍有未结束订单的桌位
+     * 这些订单来自其他实例，补充到本实例计数中，等待其他实例结束后由重新统计释放
+     * @param tableIds 本实例统计为空闲的桌位
+     * @return 可以写回空闲的桌位，复核失败时返回空列表并等待下次写回
+     */
+    private List<Long> verifyFree(List<Long> tableIds) {
+        if (tableIds.isEmpty()) {
+            return tableIds;
+        }
+        // 订单中的桌位可能是ID、编码或名称
+        Set<String> references = new HashSet<>();
+        for (Long tableId : tableIds) {
+            references.add(String.valueOf(tableId));
+            TableInfo tableInfo = tableResolver.resolveById(tableId);
+            if (tableInfo != null) {
+                if (tableInfo.getCode() != null) {
+                    references.add(tableInfo.getCode());
+                }
+                if (tableInfo.getName() != null) {
+                    references.add(tableInfo.getName());
+                }
+            }
+        }
+        List<Order> orders;
+        try {
+            orders = orderMapper.selectList(new LambdaQueryWrapper<Order>()
+                    .select(Order::getId, Order::getTableId)
+                    .in(Order::getStatus, OPEN_STATUSES)
+                    .in(Order::getTableId, references));
+        } catch (Exception e) {
+            log.warn("桌位空闲复核失败，稍后重试，桌位ID={}", tableIds, e);
+            dirty.addAll(tableIds);
+            return Collections.emptyList();
+        }
+        Set<Long> busy = new HashSet<>();
+        for (Order order : orders) {
+            TableInfo tableInfo = tableResolver.resolve(order.getTableId());
+            if (tableInfo != null) {
+                busy.add(tableInfo.getId());
+                apply(state, new Change(order.getId(), tableInfo.getId()));
+            }
+        }
+        if (busy.isEmpty()) {
+            return tableIds;
+        }
+        log.info("桌位仍有其他实例的未结束订单，不写回空闲，桌位ID={}", busy);
+        List<Long> free = new ArrayList<>(tableIds);
+        free.removeAll(busy);
+        return free;
+    }
+
+    private void write(List<Long> tableIds, int status) {
+        if (tableIds.isEmpty()) {
+            return;
+        }
+        try {
+            tableInfoService.updateStatus(tableIds, status);
+            for (Long tableId : tableIds) {
+                persisted.put(tableId, status);
+            }
+        } catch (Exception e) {
+            log.warn("桌位状态写回失败，稍后重试，status={}，桌位ID={}", status, tableIds, e);
+            dirty.addAll(tableIds);
+        }
+    }
+
+    /**
+     * 查询全部未结束订单并按桌位计数
+     */
+    private State load() {
+        List<Order> orders = orderMapper.selectList(new LambdaQueryWrapper<Order>()
+                .select(Order::getId, Order::getTableId)
+                .in(Order::getStatus, OPEN_STATUSES)
+                .isNotNull(Order::getTableId));
+        State fresh = new State();
+        for (Order order : orders) {
+            TableInfo tableInfo = tableResolver.resolve(order.getTableId());
+            if (tableInfo != null) {
+                apply(fresh, new Change(order.getId(), tableInfo.getId()));
+            }
+        }
+        log.info("桌位占用已统计，未结束订单数={}，占用桌位数={}", fresh.orderTables.size(), fresh.occupiedCount());
+        return fresh;
+    }
+
+    /**
+     * 应用一次变更，同一订单重复占用或重复释放不改变计数
+     * 桌位在空闲和使用中之间切换时标记为待写回
+     */
+    private void apply(State target, Change change) {
+        if (change.tableId != null) {
+            if (target.orderTables.putIfAbsent(change.orderId, change.tableId) == null
+                    && target.counter(change.tableId).incrementAndGet() == 1) {
+                dirty.add(change.tableId);
+            }
+        } else {
+            Long tableId = target.orderTables.remove(change.orderId);
+            if (tableId != null && target.counter(tableId).decrementAndGet() == 0) {
+                dirty.add(tableId);
+            }
+        }
+    }
+
+    /**
+     * 订单占用关系和桌位计数
+     */
+    private static final class State {
+        // 未结束订单ID → 桌位ID
+        private final Map<Long, Long> orderTables = new ConcurrentHashMap<>();
+        // 桌位ID → 未结束订单数
+        private final Map<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        private AtomicInteger counter(Long tableId) {
+            AtomicInteger count = counts.get(tableId);
+            return count != null ? count : counts.computeIfAbsent(tableId, key -> new AtomicInteger());
+        }
+
+        private long occupiedCount() {
+            return counts.values().stream().filter(count -> count.get() > 0).count();
+        }
+    }
+
+    /**
+     * 占用变更，tableId为null表示释放
+     */
+    private static final class Change {
+        private final Long orderId;
+        private final Long tableId;
+
+        private Change(Long orderId, Long tableId) {
+            this.orderId = orderId;
+            this.tableId = tableId;
+        }
+    }
+}
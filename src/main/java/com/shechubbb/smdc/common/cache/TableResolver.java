@@ -0,0 +1,321 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.common.event.TableChangedEvent;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.mapper.TableInfoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 桌位解析器
+ * 在内存中按ID、编码、名称索引全部桌位，订单和扫码接口解析桌位标识不再查询数据库；
+ * 本实例的桌位写操作提交后按行刷新，超过最大存活时间或未命中时整体重新加载（兼顾多实例部署）
+ */
+@Slf4j
+@Component
+public class TableResolver {
+
+    @Autowired
+    private TableInfoMapper tableInfoMapper;
+
+    // 索引最大存活时间，单位秒
+    @Value("${smdc.table.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // 未命中时重新加载的最小间隔，单位秒，防止无效桌位标识反复触发查询
+    @Value("${smdc.table.miss-reload-seconds:10}")
+    private long missReloadSeconds;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Index index;
+
+    /**
+     * 解析桌位标识
+     * 依次按数字ID、桌位编码、桌位名称匹配
+     * @param reference 桌位标识（ID、编码或名称）
+     * @return 桌位信息副本，无法解析时返回null
+     */
+    public TableInfo resolve(String reference) {
+        if (StringUtils.isBlank(reference)) {
+            return null;
+        }
+        TableInfo tableInfo = lookup(getIndex(), reference);
+        if (tableInfo == null) {
+            Index reloaded = reloadOnMiss();
+            if (reloaded != null) {
+                tableInfo = lookup(reloaded, reference);
+            }
+        }
+        return copy(tableInfo);
+    }
+
+    /**
+     * 根据ID解析桌位
+     * @param id 桌位ID
+     * @return 桌位信息副本，不存在时返回null
+     */
+    public TableInfo resolveById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        TableInfo tableInfo = getIndex().byId.get(id);
+        if (tableInfo == null) {
+            Index reloaded = reloadOnMiss();
+            if (reloaded != null) {
+                tableInfo = reloaded.byId.get(id);
+            }
+        }
+        return copy(tableInfo);
+    }
+
+    /**
+     * 根据编码解析桌位
+     * @param code 桌位编码
+     * @return 桌位信息副本，不存在时返回null
+     */
+    public TableInfo resolveByCode(String code) {
+        if (StringUtils.isBlank(code)) {
+            return null;
+        }
+        TableInfo tableInfo = getIndex().byCode.get(code);
+        if (tableInfo == null) {
+            Index reloaded = reloadOnMiss();
+            if (reloaded != null) {
+                tableInfo = reloaded.byCode.get(code);
+            }
+        }
+        return copy(tableInfo);
+    }
+
+    /**
+     * 根据名称解析桌位
+     * @param name 桌位名称
+     * @return 桌位信息副本，不存在时返回null
+     */
+    public TableInfo resolveByName(String name) {
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+        TableInfo tableInfo = getIndex().byName.get(name);
+        if (tableInfo == null) {
+            Index reloaded = reloadOnMiss();
+            if (reloaded != null) {
+                tableInfo = reloaded.byName.get(name);
+            }
+        }
+        return copy(tableInfo);
+    }
+
+    /**
+     * 获取全部桌位
+     * @return 按ID排序的桌位信息副本
+     */
+    public List<TableInfo> all() {
+        List<TableInfo> tables = new ArrayList<>();
+        for (TableInfo tableInfo : getIndex().byId.values()) {
+            tables.add(copy(tableInfo));
+        }
+        tables.sort(Comparator.comparing(TableInfo::getId));
+        return tables;
+    }
+
+    /**
+     * 重新加载全部桌位
+     */
+    public void reload() {
+        loadLock.lock();
+        try {
+            index = load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 桌位变更事务提交后刷新对应行
+     * 一个事件中的全部桌位一次批量查询，索引只重建一次
+     * @param event 桌位变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        Set<Long> tableIds = new HashSet<>();
+        if (event.getTableIds() != null) {
+            for (Long tableId : event.getTableIds()) {
+                if (tableId != null) {
+                    tableIds.add(tableId);
+                }
+            }
+        }
+        if (index == null || tableIds.isEmpty()) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            Index current = index;
+            if (current == null) {
+                return;
+            }
+            List<TableInfo> changed = tableInfoMapper.selectBatchIds(tableIds);
+            Map<Long, TableInfo> tables = new HashMap<>(current.byId);
+            tables.keySet().removeAll(tableIds);
+            for (TableInfo tableInfo : changed) {
+                tables.put(tableInfo.getId(), tableInfo);
+            }
+            index = new Index(tables.values(), current.loadNanos);
+        } catch (Exception e) {
+            // 刷新失败时丢弃索引，下次解析重新加载
+            index = null;
+            log.error("桌位索引刷新失败，tableIds={}", tableIds, e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前索引，首次使用时加载，过期时由一个请求线程重新加载
+     */
+    private Index getIndex() {
+        Index current = index;
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        } else if (current.olderThan(maxAgeSeconds) && loadLock.tryLock()) {
+            try {
+                if (index == current) {
+                    current = load();
+                    index = current;
+                }
+            } catch (Exception e) {
+                log.warn("桌位索引重新加载失败，继续使用旧索引", e);
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 未命中时重新加载，距上次加载不足最小间隔时不加载
+     * @return 重新加载后的索引，未加载时返回null
+     */
+    private Index reloadOnMiss() {
+        Index current = index;
+        if (current == null || !current.olderThan(missReloadSeconds) || !loadLock.tryLock()) {
+            return null;
+        }
+        try {
+            if (index != current) {
+                return index;
+            }
+            current = load();
+            index = current;
+            return current;
+        } catch (Exception e) {
+            log.warn("桌位索引重新加载失败", e);
+            return null;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 从数据库加载全部桌位
+     */
+    private Index load() {
+        long loadNanos = System.nanoTime();
+        List<TableInfo> tables = tableInfoMapper.selectList(null);
+        log.info("桌位索引已加载，桌位数={}", tables.size());
+        return new Index(tables, loadNanos);
+    }
+
+    /**
+     * 按数字ID、编码、名称依次查找
+     */
+    private static TableInfo lookup(Index index, String reference) {
+        TableInfo tableInfo = null;
+        if (StringUtils.isNumeric(reference) && reference.length() <= 18) {
+            tableInfo = index.byId.get(Long.valueOf(reference));
+        }
+        if (tableInfo == null) {
+            tableInfo = index.byCode.get(reference);
+        }
+        if (tableInfo == null) {
+            tableInfo = index.byName.get(reference);
+        }
+        return tableInfo;
+    }
+
+    /**
+     * 返回副本，调用方修改不影响索引
+     */
+    private static TableInfo copy(TableInfo source) {
+        if (source == null) {
+            return null;
+        }
+        TableInfo target = new TableInfo();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    /**
+     * 桌位索引，构建完成后只读
+     */
+    private static final class Index {
+        private final Map<Long, TableInfo> byId;
+        private final Map<String, TableInfo> byCode;
+        private final Map<String, TableInfo> byName;
+        private final long loadNanos;
+
+        private Index(Collection<TableInfo> tables, long loadNanos) {
+            List<TableInfo> sorted = new ArrayList<>(tables);
+            // 名称重复时取ID最小的桌位，与按名称单条查询的结果保持稳定
+            sorted.sort((a, b) -> Long.compare(b.getId(), a.getId()));
+            Map<Long, TableInfo> ids = new HashMap<>();
+            Map<String, TableInfo> codes = new HashMap<>();
+            Map<String, TableInfo> names = new HashMap<>();
+            for (TableInfo tableInfo : sorted) {
+                ids.put(tableInfo.getId(), tableInfo);
+                if (StringUtils.isNotBlank(tableInfo.getCode())) {
+                    codes.put(tableInfo.getCode(), tableInfo);
+                }
+                if (StringUtils.isNotBlank(tableInfo.getName())) {
+                    names.put(tableInfo.getName(), tableInfo);
+                }
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byCode = Collections.unmodifiableMap(codes);
+            this.byName = Collections.unmodifiableMap(names);
+            this.loadNanos = loadNanos;
+        }
+
+        private boolean olderThan(long seconds) {
+            return seconds > 0 && System.nanoTime() - loadNanos > TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.shechubbb.smdc.common.constant;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 订单状态流转
+ * 每个流转定义允许的源状态和目标状态，由一条条件更新语句
+ * UPDATE ... WHERE id = ? AND status IN (源状态) 完成，影响行数为0即表示状态冲突
+ */
+public enum OrderTransition {
+
+    /**
+     * 支付：待付款 → 已支付
+     */
+    PAY(OrderStatusConstant.PAID, "订单状态异常，不能支付", OrderStatusConstant.PENDING_PAYMENT),
+
+    /**
+     * 取消：待付款/已支付 → 已取消
+     */
+    CANCEL(OrderStatusConstant.CANCELLED, "订单已完成或已取消，不能取消",
+            OrderStatusConstant.PENDING_PAYMENT, OrderStatusConstant.PAID),
+
+    /**
+     * 超时取消：待付款 → 已取消，超过支付时限由系统自动执行
+     */
+    EXPIRE(OrderStatusConstant.CANCELLED, "订单状态异常，不能超时取消", OrderStatusConstant.PENDING_PAYMENT),
+
+    /**
+     * 接单：已支付 → 已支付（仅刷新更新时间）
+     */
+    ACCEPT(OrderStatusConstant.PAID, "订单状态异常，不能接单", OrderStatusConstant.PAID),
+
+    /**
+     * 完成：已支付 → 已完成
+     */
+    COMPLETE(OrderStatusConstant.COMPLETED, "订单状态异常，不能完成", OrderStatusConstant.PAID);
+
+    /**
+     * 目标状态
+     */
+    private final Integer target;
+
+    /**
+     * 状态冲突时的提示信息
+     */
+    private final String conflictMessage;
+
+    /**
+     * 允许的源状态
+     */
+    private final List<Integer> sources;
+
+    OrderTransition(Integer target, String conflictMessage, Integer... sources) {
+        this.target = target;
+        this.conflictMessage = conflictMessage;
+        this.sources = Collections.unmodifiableList(Arrays.asList(sources));
+    }
+
+    public Integer getTarget() {
+        return target;
+    }
+
+    public String getConflictMessage() {
+        return conflictMessage;
+    }
+
+    public List<Integer> getSources() {
+        return sources;
+    }
+}
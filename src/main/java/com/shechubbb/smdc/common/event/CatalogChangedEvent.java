@@ -0,0 +1,51 @@
+package com.shechubbb.smdc.common.event;
+
+import lombok.Getter;
+
+/**
+ * 菜单目录变更事件
+ * 分类、菜品、规格、店铺信息发生写操作或菜品图片的多尺寸版本生成后发布，事务提交后由菜单快照等缓存监听并刷新
+ */
+@Getter
+public class CatalogChangedEvent {
+
+    /**
+     * 变更对象类型
+     */
+    public enum Target {
+        CATEGORY, DISH, SPECIFICATION, SHOP, IMAGE
+    }
+
+    /**
+     * 变更对象类型
+     */
+    private final Target target;
+
+    /**
+     * 变更对象ID，为空时表示批量或未知范围的变更
+     */
+    private final Long id;
+
+    /**
+     * 提交序号，事务提交后由菜单目录版本号设置，用于合并同一事务内的多次变更；
+     * 事件在事务内创建，创建时间早于提交，不能用来判断快照是否已包含本次变更
+     */
+    private volatile long commitVersion;
+
+    public CatalogChangedEvent(Target target) {
+        this(target, null);
+    }
+
+    public CatalogChangedEvent(Target target, Long id) {
+        this.target = target;
+        this.id = id;
+    }
+
+    /**
+     * 设置提交序号，仅由菜单目录版本号调用
+     * @param commitVersion 提交后递增得到的版本号
+     */
+    public void setCommitVersion(long commitVersion) {
+        this.commitVersion = commitVersion;
+    }
+}
@@ -0,0 +1,59 @@
+package com.shechubbb.smdc.common.event;
+
+import com.shechubbb.smdc.common.constant.OrderTransition;
+import lombok.Getter;
+
+/**
+ * 订单变更事件
+ * 订单创建及状态流转成功后发布，事务提交后由订单推送等组件监听
+ */
+@Getter
+public class OrderChangedEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATE, PAY, ACCEPT, CANCEL, EXPIRE, COMPLETE;
+
+        /**
+         * 根据状态流转获取变更类型
+         * @param transition 状态流转
+         * @return 变更类型
+         */
+        public static Type of(OrderTransition transition) {
+            return valueOf(transition.name());
+        }
+    }
+
+    /**
+     * 订单ID
+     */
+    private final Long orderId;
+
+    /**
+     * 变更类型
+     */
+    private final Type type;
+
+    /**
+     * 变更后的订单状态
+     */
+    private final Integer status;
+
+    /**
+     * 订单占用的桌位ID，仅下单事件携带，未指定桌位时为null
+     */
+    private final Long tableId;
+
+    public OrderChangedEvent(Long orderId, Type type, Integer status) {
+        this(orderId, type, status, null);
+    }
+
+    public OrderChangedEvent(Long orderId, Type type, Integer status, Long tableId) {
+        this.orderId = orderId;
+        this.type = type;
+        this.status = status;
+        this.tableId = tableId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.shechubbb.smdc.common.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 桌位变更事件
+ * 桌位新增、修改、删除或状态变化时发布，事务提交后由桌位索引监听并刷新；
+ * 批量更新状态时一个事件携带全部桌位ID，索引只刷新一次
+ */
+@Getter
+public class TableChangedEvent {
+
+    /**
+     * 桌位ID
+     */
+    private final Collection<Long> tableIds;
+
+    public TableChangedEvent(Long tableId) {
+        this.tableIds = Collections.singletonList(tableId);
+    }
+
+    public TableChangedEvent(Collection<Long> tableIds) {
+        this.tableIds = tableIds;
+    }
+}
@@ -0,0 +1,23 @@
+package com.shechubbb.smdc.common.json;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 图片地址字段
+ * 实体和缓存中保存相对路径（如/upload/xxx.jpg），序列化时拼接服务器地址输出完整URL，
+ * 反序列化时去掉本服务器地址前缀，管理端回传列表中的完整URL时仍保存为相对路径
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = ImageUrlSerializer.class)
+@JsonDeserialize(using = ImageUrlDeserializer.class)
+public @interface ImageUrl {
+}
@@ -0,0 +1,31 @@
+package com.shechubbb.smdc.common.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.shechubbb.smdc.config.ImageConfig.ImageUrlConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+/**
+ * 图片地址反序列化器，去掉本服务器地址前缀保存为相对路径
+ * 由Spring的ObjectMapper创建并注入转换器；未注入时原样读取
+ */
+public class ImageUrlDeserializer extends StdDeserializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Autowired(required = false)
+    private transient ImageUrlConverter imageUrlConverter;
+
+    public ImageUrlDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String value = p.getValueAsString();
+        return imageUrlConverter != null ? imageUrlConverter.toRelativeUrl(value) : value;
+    }
+}
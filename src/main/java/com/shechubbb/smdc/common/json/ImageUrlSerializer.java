@@ -0,0 +1,30 @@
+package com.shechubbb.smdc.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.shechubbb.smdc.config.ImageConfig.ImageUrlConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+/**
+ * 图片地址序列化器，输出完整URL
+ * 由Spring的ObjectMapper创建并注入转换器；未注入时（如测试中直接new的ObjectMapper）原样输出
+ */
+public class ImageUrlSerializer extends StdSerializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Autowired(required = false)
+    private transient ImageUrlConverter imageUrlConverter;
+
+    public ImageUrlSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeString(imageUrlConverter != null ? imageUrlConverter.getFullImageUrl(value) : value);
+    }
+}
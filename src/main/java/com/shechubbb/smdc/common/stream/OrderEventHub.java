@@ -0,0 +1,325 @@
+package com.shechubbb.smdc.common.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import com.shechubbb.smdc.vo.OrderStreamEventVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订单实时推送中心
+ * 订单事务提交后序列化一次事件，写入环形缓冲区并分发到各连接的待发送队列，由独立线程写出；
+ * 发布方只做入队，慢连接不会阻塞下单。队列写满的连接直接断开，客户端携带Last-Event-ID重连后从缓冲区补发；
+ * 缓冲区已覆盖所需事件时推送reset事件，客户端应重新拉取订单列表
+ */
+@Slf4j
+@Component
+public class OrderEventHub {
+
+    // 推送事件名称
+    private static final String EVENT_ORDER = "order";
+    private static final String EVENT_RESET = "reset";
+
+    // 心跳占位，与订单事件共用发送队列，保证同一连接的写出串行
+    private static final Object HEARTBEAT = new Object();
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 环形缓冲区大小，决定断线重连可补发的事件数
+    @Value("${smdc.order.stream.buffer-size:512}")
+    private int bufferSize;
+
+    // 每个连接的待发送队列容量，写满视为慢连接并断开
+    @Value("${smdc.order.stream.client-queue-size:128}")
+    private int clientQueueSize;
+
+    // 心跳间隔，单位秒，防止代理因空闲断开连接
+    @Value("${smdc.order.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    // 连接超时，单位毫秒，到期后客户端自动重连
+    @Value("${smdc.order.stream.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    // 写出线程数
+    @Value("${smdc.order.stream.sender-threads:2}")
+    private int senderThreads;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    // 缓冲区、序号和连接注册由同一把锁保护，保证补发与实时事件之间不丢不重
+    private final Object lock = new Object();
+
+    private Event[] buffer;
+
+    private long lastEventId;
+
+    private ExecutorService sender;
+
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void init() {
+        buffer = new Event[bufferSize];
+        // 以启动时间作为序号起点，重启后旧的Last-Event-ID不会与新事件混淆
+        lastEventId = System.currentTimeMillis() * 1000;
+        sender = Executors.newFixedThreadPool(senderThreads, threadFactory("order-stream-sender"));
+        heartbeat = Executors.newSingleThreadScheduledExecutor(threadFactory("order-stream-heartbeat"));
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        for (Client client : clients) {
+            client.close();
+        }
+    }
+
+    /**
+     * 订阅订单事件
+     * @param lastEventId 客户端已收到的最后一个事件序号，为空时只接收新事件
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    /**
+     * 使用指定的连接订阅订单事件
+     * @param emitter SSE连接
+     * @param lastEventId 客户端已收到的最后一个事件序号，为空时只接收新事件
+     * @return SSE连接
+     */
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        Client client = new Client(emitter, clientQueueSize);
+        client.emitter.onCompletion(() -> clients.remove(client));
+        client.emitter.onTimeout(client::close);
+        client.emitter.onError(e -> client.close());
+
+        synchronized (lock) {
+            if (lastEventId != null) {
+                replay(client, lastEventId);
+            }
+            clients.add(client);
+        }
+        schedule(client);
+        return client.emitter;
+    }
+
+    /**
+     * 当前连接数
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * 订单事务提交后推送事件
+     * 每个事件只查询和序列化一次，与连接数无关
+     * @param event 订单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        try {
+            Order order = orderMapper.selectById(event.getOrderId());
+            OrderStreamEventVO payload = new OrderStreamEventVO();
+            payload.setType(event.getType().name());
+            payload.setOrderId(event.getOrderId());
+            payload.setStatus(event.getStatus());
+            payload.setTime(LocalDateTime.now());
+            if (order != null) {
+                payload.setNumber(order.getNumber());
+                payload.setTableId(order.getTableId());
+                payload.setAmount(order.getAmount());
+            }
+            publish(payload);
+        } catch (Exception e) {
+            // 推送失败不影响订单流程，客户端可通过列表接口兜底
+            log.error("订单事件推送失败，orderId={}，type={}", event.getOrderId(), event.getType(), e);
+        }
+    }
+
+    /**
+     * 写入缓冲区并分发到全部连接
+     */
+    void publish(OrderStreamEventVO payload) throws JsonProcessingException {
+        Event event;
+        synchronized (lock) {
+            payload.setEventId(++lastEventId);
+            event = new Event(lastEventId, objectMapper.writeValueAsString(payload));
+            buffer[(int) (lastEventId % buffer.length)] = event;
+            for (Client client : clients) {
+                client.offer(event);
+            }
+        }
+        for (Client client : clients) {
+            schedule(client);
+        }
+    }
+
+    /**
+     * 补发缓冲区中序号大于lastEventId的事件，缓冲区已覆盖时通知客户端重新拉取
+     */
+    private void replay(Client client, long lastEventId) {
+        if (lastEventId >= this.lastEventId) {
+            // 序号来自其他实例或重启前，无法判断缺失范围
+            if (lastEventId > this.lastEventId) {
+                client.offer(new Event(this.lastEventId, null));
+            }
+            return;
+        }
+        long first = Math.max(lastEventId + 1, this.lastEventId - buffer.length + 1);
+        Event oldest = buffer[(int) (first % buffer.length)];
+        // 缺失事件已被覆盖，或补发量超过连接队列容量时，改为通知客户端重新拉取
+        if (oldest == null || oldest.id != first || first > lastEventId + 1
+                || this.lastEventId - first + 1 > client.queue.remainingCapacity()) {
+            client.offer(new Event(this.lastEventId, null));
+            return;
+        }
+        for (long id = first; id <= this.lastEventId; id++) {
+            client.offer(buffer[(int) (id % buffer.length)]);
+        }
+    }
+
+    /**
+     * 向全部连接发送心跳
+     */
+    private void sendHeartbeat() {
+        for (Client client : clients) {
+            client.offer(HEARTBEAT);
+            schedule(client);
+        }
+    }
+
+    /**
+     * 安排写出线程发送连接队列中的数据，同一连接同时只有一个写出任务
+     */
+    private void schedule(Client client) {
+        if (client.queue.isEmpty() || !client.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(client));
+        } catch (RejectedExecutionException e) {
+            client.draining.set(false);
+        }
+    }
+
+    /**
+     * 写出连接队列中的全部数据
+     */
+    private void drain(Client client) {
+        try {
+            Object item;
+            while ((item = client.queue.poll()) != null) {
+                if (client.closed.get()) {
+                    return;
+                }
+                if (item == HEARTBEAT) {
+                    client.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    Event event = (Event) item;
+                    if (event.json == null) {
+                        client.emitter.send(SseEmitter.event().id(String.valueOf(event.id)).name(EVENT_RESET).data(""));
+                    } else {
+                        client.emitter.send(SseEmitter.event().id(String.valueOf(event.id)).name(EVENT_ORDER)
+                                .data(event.json, MediaType.APPLICATION_JSON));
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 连接已断开
+            client.close();
+        } finally {
+            client.draining.set(false);
+        }
+        // 释放标记后再检查一次，避免与入队并发时漏发
+        schedule(client);
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 缓冲的订单事件，json为null表示需要客户端重新拉取的reset事件
+     */
+    private static final class Event {
+        private final long id;
+        private final String json;
+
+        private Event(long id, String json) {
+            this.id = id;
+            this.json = json;
+        }
+    }
+
+    /**
+     * 单个SSE连接及其待发送队列
+     */
+    private final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Client(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        /**
+         * 入队，队列已满时断开连接，由客户端重连补发
+         */
+        private void offer(Object item) {
+            if (!closed.get() && !queue.offer(item)) {
+                log.warn("订单推送连接发送过慢，已断开，待发送={}", queue.size());
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                clients.remove(this);
+                queue.clear();
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.shechubbb.smdc.common.stream;
+
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.ExpiringCache;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单状态等待通知
+ * 顾客等待订单状态变化时挂起请求（DeferredResult，不占用Servlet线程），订单状态流转提交后直接唤醒；
+ * 订单归属和最新状态缓存在内存中并随事件更新，等待中的请求不查询数据库
+ */
+@Slf4j
+@Component
+public class OrderStatusNotifier {
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    // 单次等待的最长时间，单位秒，超时返回当前状态，客户端重新发起等待
+    @Value("${smdc.order.await.timeout-seconds:25}")
+    private long timeoutSeconds;
+
+    // 订单状态缓存的最大条目数
+    @Value("${smdc.order.await.cache-size:10000}")
+    private int cacheSize;
+
+    // 订单状态缓存的存活时间，单位秒，兜底同步其他实例的状态变更
+    @Value("${smdc.order.await.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    private ExpiringCache<Long, OrderState> states;
+
+    private final Map<Long, Set<DeferredResult<Result<Integer>>>> waiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        states = new ExpiringCache<>(cacheSize, TimeUnit.SECONDS.toMillis(cacheTtlSeconds));
+    }
+
+    /**
+     * 等待订单状态离开since
+     * @param orderId 订单ID
+     * @param userId 当前用户ID
+     * @param since 客户端已知的订单状态，为空时立即返回当前状态
+     * @return 挂起的请求，结果为订单最新状态
+     */
+    public DeferredResult<Result<Integer>> await(Long orderId, Long userId, Integer since) {
+        OrderState state = loadState(orderId);
+        if (!Objects.equals(state.userId, userId)) {
+            throw new BusinessException("无权查看此订单");
+        }
+
+        DeferredResult<Result<Integer>> deferred = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        if (since == null || !since.equals(state.status)) {
+            deferred.setResult(Result.success(state.status));
+            return deferred;
+        }
+
+        Set<DeferredResult<Result<Integer>>> orderWaiters =
+                waiters.computeIfAbsent(orderId, key -> ConcurrentHashMap.newKeySet());
+        orderWaiters.add(deferred);
+        deferred.onTimeout(() -> deferred.setResult(Result.success(currentStatus(orderId, since))));
+        deferred.onCompletion(() -> removeWaiter(orderId, deferred));
+
+        // 注册后再检查一次，避免与状态变更并发时错过通知
+        OrderState latest = states.get(orderId);
+        if (latest != null && !since.equals(latest.status)) {
+            deferred.setResult(Result.success(latest.status));
+        }
+        return deferred;
+    }
+
+    /**
+     * 当前等待中的请求数
+     */
+    public int getWaiterCount() {
+        int count = 0;
+        for (Set<DeferredResult<Result<Integer>>> orderWaiters : waiters.values()) {
+            count += orderWaiters.size();
+        }
+        return count;
+    }
+
+    /**
+     * 订单事务提交后更新状态缓存并唤醒等待的请求
+     * @param event 订单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderState state = states.get(event.getOrderId());
+        if (state != null) {
+            states.put(event.getOrderId(), new OrderState(state.userId, event.getStatus()));
+        }
+        Set<DeferredResult<Result<Integer>>> orderWaiters = waiters.remove(event.getOrderId());
+        if (orderWaiters != null) {
+            for (DeferredResult<Result<Integer>> deferred : orderWaiters) {
+                deferred.setResult(Result.success(event.getStatus()));
+            }
+        }
+    }
+
+    /**
+     * 读取订单状态，未缓存时查询一次订单
+     */
+    private OrderState loadState(Long orderId) {
+        OrderState state = states.get(orderId);
+        if (state == null) {
+            Order order = orderMapper.selectById(orderId);
+            if (order == null) {
+                throw new BusinessException("订单不存在");
+            }
+            state = new OrderState(order.getUserId(), order.getStatus());
+            states.put(orderId, state);
+        }
+        return state;
+    }
+
+    /**
+     * 超时时返回缓存中的状态，缓存已过期时返回客户端已知状态
+     */
+    private Integer currentStatus(Long orderId, Integer since) {
+        OrderState state = states.get(orderId);
+        return state != null ? state.status : since;
+    }
+
+    private void removeWaiter(Long orderId, DeferredResult<Result<Integer>> deferred) {
+        waiters.computeIfPresent(orderId, (key, orderWaiters) -> {
+            orderWaiters.remove(deferred);
+            return orderWaiters.isEmpty() ? null : orderWaiters;
+        });
+    }
+
+    /**
+     * 订单归属和状态
+     */
+    private static final class OrderState {
+        private final Long userId;
+        private final Integer status;
+
+        private OrderState(Long userId, Integer status) {
+            this.userId = userId;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.shechubbb.smdc.common.task;
+
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.common.util.ImageResizer;
+import com.shechubbb.smdc.vo.ImageVariantsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片多尺寸版本生成
+ * 上传后由有界线程池在后台生成缩略图、列表图、详情图和模糊占位图，与原图放在同一目录，
+ * 文件名为 原图名_宽度.jpg 和 原图名_placeholder.jpg；生成完成后发布菜单变更事件刷新菜单快照。
+ * 升级前上传的图片在首次查询时补充生成
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    /**
+     * 上传文件访问路径前缀
+     */
+    public static final String URL_PREFIX = "/upload/";
+
+    static final int THUMBNAIL_WIDTH = 120;
+
+    static final int LIST_WIDTH = 375;
+
+    static final int DETAIL_WIDTH = 750;
+
+    static final int PLACEHOLDER_WIDTH = 16;
+
+    private static final int[] WIDTHS = {THUMBNAIL_WIDTH, LIST_WIDTH, DETAIL_WIDTH};
+
+    private static final String PLACEHOLDER_SUFFIX = "_placeholder.jpg";
+
+    private static final float QUALITY = 0.8f;
+
+    private static final float PLACEHOLDER_QUALITY = 0.5f;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${smdc.upload-path}")
+    private String uploadPath;
+
+    // 是否生成多尺寸版本
+    @Value("${smdc.upload.variants.enabled:true}")
+    private boolean enabled;
+
+    // 生成线程数，解码大图占用内存较多，不宜过大
+    @Value("${smdc.upload.variants.threads:1}")
+    private int threads;
+
+    // 等待生成的最大图片数，队列已满时跳过，下次查询时补充生成
+    @Value("${smdc.upload.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    // 原图最大像素数，超过时不生成
+    @Value("${smdc.upload.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    // 原图相对URL → 已生成的版本
+    private final Map<String, ImageVariantsVO> variants = new ConcurrentHashMap<>();
+
+    // 等待或正在生成的原图
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // 无法生成的原图，本次运行期间不再重试
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交生成任务，已在生成中的图片不重复提交
+     * @param image 原图相对URL
+     */
+    public void submit(String image) {
+        if (!enabled || original(image) == null || !pending.add(image)) {
+            return;
+        }
+        failed.remove(image);
+        try {
+            executor.execute(() -> generate(image));
+        } catch (RejectedExecutionException e) {
+            pending.remove(image);
+            log.warn("图片多尺寸生成队列已满，稍后补充生成，image={}", image);
+        }
+    }
+
+    /**
+     * 获取图片的多尺寸版本
+     * 尚未生成时提交生成任务并返回null，客户端暂时使用原图
+     * @param image 原图相对URL
+     * @return 多尺寸版本，未生成或不是本服务器上传的图片时返回null
+     */
+    public ImageVariantsVO getVariants(String image) {
+        if (!enabled || image == null) {
+            return null;
+        }
+        ImageVariantsVO cached = variants.get(image);
+        if (cached != null || pending.contains(image) || failed.contains(image)) {
+            return cached;
+        }
+        File original = original(image);
+        if (original == null) {
+            return null;
+        }
+        ImageVariantsVO existing = readExisting(image, original);
+        if (existing != null) {
+            variants.put(image, existing);
+            return existing;
+        }
+        if (original.isFile()) {
+            submit(image);
+        }
+        return null;
+    }
+
+    /**
+     * 删除原图时移除已生成的版本
+     * @param image 原图相对URL
+     */
+    public void evict(String image) {
+        variants.remove(image);
+        failed.remove(image);
+    }
+
+    /**
+     * 生成全部版本，完成后通知菜单快照刷新
+     */
+    void generate(String image) {
+        try {
+            File original = original(image);
+            // 相同内容重复上传时复用已生成的版本
+            ImageVariantsVO existing = readExisting(image, original);
+            if (existing != null) {
+                variants.put(image, existing);
+                return;
+            }
+            BufferedImage source = ImageResizer.read(original, maxPixels);
+            if (source == null) {
+                failed.add(image);
+                log.info("图片格式不支持生成多尺寸版本，image={}", image);
+                return;
+            }
+            for (int width : WIDTHS) {
+                ImageResizer.writeJpeg(ImageResizer.resize(source, width), variantFile(original, width), QUALITY);
+            }
+            ImageResizer.writeJpeg(ImageResizer.placeholder(source, PLACEHOLDER_WIDTH),
+                    placeholderFile(original), PLACEHOLDER_QUALITY);
+
+            ImageVariantsVO generated = readExisting(image, original);
+            if (generated != null) {
+                variants.put(image, generated);
+                eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.IMAGE));
+            }
+        } catch (Exception e) {
+            failed.add(image);
+            log.warn("图片多尺寸版本生成失败，image={}", image, e);
+        } finally {
+            pending.remove(image);
+        }
+    }
+
+    /**
+     * 读取磁盘上已生成的版本，任一版本缺失时返回null
+     */
+    private ImageVariantsVO readExisting(String image, File original) {
+        for (int width : WIDTHS) {
+            if (!variantFile(original, width).isFile()) {
+                return null;
+            }
+        }
+        File placeholder = placeholderFile(original);
+        if (!placeholder.isFile()) {
+            return null;
+        }
+        String base = baseUrl(image);
+        ImageVariantsVO vo = new ImageVariantsVO();
+        vo.setThumbnail(base + '_' + THUMBNAIL_WIDTH + ".jpg");
+        vo.setList(base + '_' + LIST_WIDTH + ".jpg");
+        vo.setDetail(base + '_' + DETAIL_WIDTH + ".jpg");
+        try {
+            vo.setPlaceholder("data:image/jpeg;base64,"
+                    + Base64.getEncoder().encodeToString(Files.readAllBytes(placeholder.toPath())));
+        } catch (IOException e) {
+            log.warn("读取占位图失败，image={}", image, e);
+        }
+        return vo;
+    }
+
+    /**
+     * 原图文件，只接受上传目录下的文件名
+     */
+    private File original(String image) {
+        if (image == null || !image.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String fileName = image.substring(URL_PREFIX.length());
+        if (fileName.isEmpty() || fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+            return null;
+        }
+        return new File(uploadPath, fileName);
+    }
+
+    private static File variantFile(File original, int width) {
+        return new File(original.getParentFile(), baseName(original.getName()) + '_' + width + ".jpg");
+    }
+
+    private static File placeholderFile(File original) {
+        return new File(original.getParentFile(), baseName(original.getName()) + PLACEHOLDER_SUFFIX);
+    }
+
+    private static String baseUrl(String image) {
+        return URL_PREFIX + baseName(image.substring(URL_PREFIX.length()));
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
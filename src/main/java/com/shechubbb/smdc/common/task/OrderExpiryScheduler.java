@@ -0,0 +1,154 @@
+package com.shechubbb.smdc.common.task;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.shechubbb.smdc.common.constant.OrderStatusConstant;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.common.util.HashedTimingWheel;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import com.shechubbb.smdc.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 待付款订单超时取消
+ * 启动时加载全部待付款订单，之后由本实例的下单事件加入时间轮，到期后批量超时取消并释放桌位；
+ * 取消使用 UPDATE ... WHERE status = 待付款 条件更新，多实例同时处理同一订单时只有一个能成功
+ */
+@Slf4j
+@Component
+public class OrderExpiryScheduler {
+
+    // 单批超时取消的最大订单数
+    private static final int BATCH_SIZE = 100;
+
+    // 取消失败后重试的间隔，单位毫秒
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    // 支付时限，单位分钟，0表示不自动取消
+    @Value("${smdc.order.payment-timeout-minutes:15}")
+    private long paymentTimeoutMinutes;
+
+    // 时间轮刻度，单位毫秒
+    @Value("${smdc.order.expiry.tick-millis:1000}")
+    private long tickMillis;
+
+    // 时间轮槽位数
+    @Value("${smdc.order.expiry.wheel-size:512}")
+    private int wheelSize;
+
+    private final Map<Long, HashedTimingWheel.Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+
+    private HashedTimingWheel<Long> wheel;
+
+    @PostConstruct
+    public void init() {
+        if (paymentTimeoutMinutes > 0) {
+            wheel = new HashedTimingWheel<>("order-expiry", tickMillis, wheelSize, this::expire);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    /**
+     * 启动完成后加载全部待付款订单
+     * 加载失败不影响启动，新订单仍会加入时间轮
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingOrders() {
+        if (wheel == null) {
+            return;
+        }
+        try {
+            List<Order> orders = orderMapper.selectList(new LambdaQueryWrapper<Order>()
+                    .select(Order::getId, Order::getCreateTime)
+                    .eq(Order::getStatus, OrderStatusConstant.PENDING_PAYMENT));
+            LocalDateTime now = LocalDateTime.now();
+            for (Order order : orders) {
+                LocalDateTime createTime = order.getCreateTime() != null ? order.getCreateTime() : now;
+                long delayMillis = Duration.between(now, createTime.plusMinutes(paymentTimeoutMinutes)).toMillis();
+                schedule(order.getId(), delayMillis);
+            }
+            log.info("待付款订单已加入超时队列，数量={}", orders.size());
+        } catch (Exception e) {
+            log.warn("加载待付款订单失败，已有订单需人工处理或等待下次启动", e);
+        }
+    }
+
+    /**
+     * 下单后加入时间轮，订单离开待付款状态后移出
+     * @param event 订单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (wheel == null) {
+            return;
+        }
+        if (event.getType() == OrderChangedEvent.Type.CREATE) {
+            schedule(event.getOrderId(), TimeUnit.MINUTES.toMillis(paymentTimeoutMinutes));
+        } else {
+            HashedTimingWheel.Timeout<Long> timeout = timeouts.remove(event.getOrderId());
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * 等待超时的订单数
+     */
+    public int getPendingCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private void schedule(Long orderId, long delayMillis) {
+        HashedTimingWheel.Timeout<Long> previous = timeouts.put(orderId, wheel.schedule(orderId, delayMillis));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * 批量超时取消到期订单，失败的批次稍后重试
+     */
+    private void expire(List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + BATCH_SIZE, orderIds.size()));
+            try {
+                List<Long> expired = orderService.expireOrders(batch);
+                batch.forEach(timeouts::remove);
+                if (!expired.isEmpty()) {
+                    log.info("待付款订单已超时取消，数量={}，订单ID={}", expired.size(), expired);
+                }
+            } catch (Exception e) {
+                log.error("待付款订单超时取消失败，{}毫秒后重试，订单ID={}", RETRY_DELAY_MILLIS, batch, e);
+                batch.forEach(orderId -> schedule(orderId, RETRY_DELAY_MILLIS));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.shechubbb.smdc.common.task;
+
+import com.shechubbb.smdc.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 历史订单缓存字段回填
+ * 新订单下单时即缓存桌位名称、桌位编码和用户昵称；启动后在后台线程按主键分批回填此前的订单，
+ * 每批一个短事务，内存占用只与批大小有关，中途失败时下次启动从头扫描未回填的订单
+ */
+@Slf4j
+@Component
+public class OrderSnapshotBackfill {
+
+    @Autowired
+    private OrderService orderService;
+
+    // 是否在启动后回填
+    @Value("${smdc.order.snapshot-backfill.enabled:true}")
+    private boolean enabled;
+
+    // 每批订单数
+    @Value("${smdc.order.snapshot-backfill.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * 启动完成后在后台线程回填，不影响启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                run();
+            } finally {
+                running.set(false);
+            }
+        }, "order-snapshot-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 按主键顺序逐批回填
+     * @return 回填的批数
+     */
+    public int run() {
+        int batches = 0;
+        Long lastId = 0L;
+        try {
+            Long next;
+            while ((next = orderService.backfillSnapshot(lastId, batchSize)) != null) {
+                lastId = next;
+                batches++;
+            }
+            if (batches > 0) {
+                log.info("历史订单缓存字段回填完成，批数={}，最后订单ID={}", batches, lastId);
+            }
+        } catch (Exception e) {
+            log.warn("历史订单缓存字段回填失败，下次启动继续，已完成批数={}", batches, e);
+        }
+        return batches;
+    }
+}
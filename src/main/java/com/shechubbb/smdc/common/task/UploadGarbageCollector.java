@@ -0,0 +1,302 @@
+package com.shechubbb.smdc.common.task;
+
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.util.FingerprintSet;
+import com.shechubbb.smdc.mapper.DishMapper;
+import com.shechubbb.smdc.mapper.OrderDetailMapper;
+import com.shechubbb.smdc.mapper.ShopInfoMapper;
+import com.shechubbb.smdc.servlet.UploadFileServlet;
+import com.shechubbb.smdc.vo.UploadGcReportVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 未引用上传文件清理
+ * 标记：流式读取菜品图片、订单明细菜品图片和店铺logo，按原图名（去掉扩展名和多尺寸后缀）记入紧凑指纹集合；
+ * 清除：遍历上传目录，原图及其多尺寸版本都未被引用、且全部超过宽限期时才删除，删除按限速执行。
+ * 宽限期保护刚上传尚未保存到菜品的图片，重复上传已有图片时会刷新其修改时间；
+ * 限速删除期间可能发生重复上传，删除前再次检查文件的修改时间，被刷新的原图整组不再删除
+ */
+@Slf4j
+@Component
+public class UploadGarbageCollector {
+
+    // 原图名_多尺寸后缀.扩展名
+    private static final Pattern FILE_NAME = Pattern.compile("^(.+?)(_(?:"
+            + ImageVariantGenerator.THUMBNAIL_WIDTH + "|" + ImageVariantGenerator.LIST_WIDTH + "|"
+            + ImageVariantGenerator.DETAIL_WIDTH + "|placeholder))?(\\.[^.]*)?$");
+
+    @Autowired
+    private DishMapper dishMapper;
+
+    @Autowired
+    private OrderDetailMapper orderDetailMapper;
+
+    @Autowired
+    private ShopInfoMapper shopInfoMapper;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Autowired
+    private UploadFileServlet uploadFileServlet;
+
+    @Value("${smdc.upload-path}")
+    private String uploadPath;
+
+    // 是否定期清理
+    @Value("${smdc.upload.gc.enabled:true}")
+    private boolean enabled;
+
+    // 定期清理是否只演练不删除
+    @Value("${smdc.upload.gc.dry-run:false}")
+    private boolean dryRun;
+
+    // 清理间隔，单位小时
+    @Value("${smdc.upload.gc.interval-hours:24}")
+    private long intervalHours;
+
+    // 宽限期，单位小时
+    @Value("${smdc.upload.gc.grace-hours:168}")
+    private long graceHours;
+
+    // 每秒最多删除的文件数
+    @Value("${smdc.upload.gc.deletes-per-second:20}")
+    private int deletesPerSecond;
+
+    // 报告中列出的未引用文件数
+    @Value("${smdc.upload.gc.sample-size:100}")
+    private int sampleSize;
+
+    // 同一时间只执行一次清理或演练
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                run(dryRun);
+            } catch (Exception e) {
+                log.error("上传文件清理失败，等待下次执行", e);
+            }
+        }, intervalHours, intervalHours, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 执行一次清理
+     * @param dryRun 是否只统计不删除
+     * @return 清理报告
+     */
+    public UploadGcReportVO run(boolean dryRun) {
+        if (!runLock.tryLock()) {
+            throw new BusinessException("上传文件清理正在执行，请稍后再试");
+        }
+        try {
+            return sweep(mark(), dryRun);
+        } catch (IOException e) {
+            throw new BusinessException("读取上传目录失败：" + e.getMessage());
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * 标记数据库中引用的全部上传文件
+     */
+    private FingerprintSet mark() {
+        FingerprintSet referenced = new FingerprintSet();
+        ResultHandler<String> handler = context -> {
+            String key = referencedKey(context.getResultObject());
+            if (key != null) {
+                referenced.add(key);
+            }
+        };
+        dishMapper.streamImages(handler);
+        orderDetailMapper.streamDishImages(handler);
+        shopInfoMapper.streamLogos(handler);
+        return referenced.seal();
+    }
+
+    /**
+     * 遍历上传目录两次：先找出宽限期内有文件的原图，再删除未引用且不在宽限期内的文件
+     * 第二次遍历按限速执行可能持续数分钟，删除前按本次读取的修改时间再次判断宽限期
+     */
+    private UploadGcReportVO sweep(FingerprintSet referenced, boolean dryRun) throws IOException {
+        long startMillis = System.currentTimeMillis();
+        UploadGcReportVO report = new UploadGcReportVO();
+        report.setStartTime(LocalDateTime.now());
+        report.setGraceHours(graceHours);
+        report.setReferencedCount(referenced.size());
+
+        // 数据库中没有任何引用时可能连接了错误的库，不删除
+        boolean delete = !dryRun && referenced.size() > 0;
+        if (!dryRun && !delete) {
+            log.warn("数据库中没有引用任何上传文件，本次清理只统计不删除");
+        }
+        report.setDryRun(!delete);
+
+        Path dir = Paths.get(uploadPath);
+        if (!Files.isDirectory(dir)) {
+            return finish(report, startMillis);
+        }
+        long cutoff = startMillis - TimeUnit.HOURS.toMillis(graceHours);
+
+        FingerprintSet recent = new FingerprintSet();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = attributes(file);
+                if (attributes != null && attributes.lastModifiedTime().toMillis() >= cutoff) {
+                    recent.add(fileKey(file.getFileName().toString()));
+                }
+            }
+        }
+        recent.seal();
+
+        long scannedFiles = 0;
+        long scannedBytes = 0;
+        long orphanFiles = 0;
+        long orphanBytes = 0;
+        long deletedFiles = 0;
+        long deletedBytes = 0;
+        long intervalNanos = deletesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / deletesPerSecond : 0;
+        // 第二次遍历期间被重新上传的原图
+        Set<String> revived = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("上传文件清理已中断");
+                    break;
+                }
+                BasicFileAttributes attributes = attributes(file);
+                if (attributes == null) {
+                    continue;
+                }
+                scannedFiles++;
+                scannedBytes += attributes.size();
+                String fileName = file.getFileName().toString();
+                String key = fileKey(fileName);
+                if (referenced.contains(key) || recent.contains(key) || revived.contains(key)) {
+                    continue;
+                }
+                // 第一次遍历之后被重新上传
+                if (attributes.lastModifiedTime().toMillis() >= cutoff) {
+                    revived.add(key);
+                    continue;
+                }
+                orphanFiles++;
+                orphanBytes += attributes.size();
+                if (report.getSamples().size() < sampleSize) {
+                    report.getSamples().add(fileName);
+                }
+                if (delete && deleteFile(file, fileName)) {
+                    deletedFiles++;
+                    deletedBytes += attributes.size();
+                    LockSupport.parkNanos(intervalNanos);
+                }
+            }
+        }
+
+        report.setScannedFiles(scannedFiles);
+        report.setScannedBytes(scannedBytes);
+        report.setOrphanFiles(orphanFiles);
+        report.setOrphanBytes(orphanBytes);
+        report.setDeletedFiles(deletedFiles);
+        report.setDeletedBytes(deletedBytes);
+        finish(report, startMillis);
+        log.info("上传文件清理完成，dryRun={}，引用数={}，扫描文件数={}，未引用文件数={}，已删除文件数={}，释放字节数={}",
+                report.getDryRun(), referenced.size(), scannedFiles, orphanFiles, deletedFiles, deletedBytes);
+        return report;
+    }
+
+    private boolean deleteFile(Path file, String fileName) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除上传文件失败：{}", fileName, e);
+            return false;
+        }
+        uploadFileServlet.evict(fileName);
+        imageVariantGenerator.evict(ImageVariantGenerator.URL_PREFIX + fileName);
+        return true;
+    }
+
+    private static UploadGcReportVO finish(UploadGcReportVO report, long startMillis) {
+        report.setDurationMillis(System.currentTimeMillis() - startMillis);
+        return report;
+    }
+
+    /**
+     * 普通文件的属性，目录或已被删除的文件返回null
+     */
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 数据库中保存的图片路径对应的原图名，支持相对路径和带服务器地址的绝对路径，不是上传文件时返回null
+     */
+    static String referencedKey(String url) {
+        if (url == null) {
+            return null;
+        }
+        int index = url.lastIndexOf(ImageVariantGenerator.URL_PREFIX);
+        if (index < 0) {
+            return null;
+        }
+        String fileName = url.substring(index + ImageVariantGenerator.URL_PREFIX.length());
+        return fileName.isEmpty() || fileName.contains("/") ? null : fileKey(fileName);
+    }
+
+    /**
+     * 文件名对应的原图名，多尺寸版本与原图相同
+     */
+    static String fileKey(String fileName) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : fileName;
+    }
+}
@@ -0,0 +1,197 @@
+package com.shechubbb.smdc.common.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界过期缓存
+ * 基于ConcurrentHashMap，每个条目有独立的过期时间；读取时惰性剔除过期条目，
+ * 容量达到上限时先清理过期条目，仍然超限则随机淘汰至容量的3/4
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final long defaultTtlMillis;
+
+    private final Object evictLock = new Object();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize 最大条目数
+     * @param defaultTtlMillis 默认存活时间，单位毫秒
+     */
+    public ExpiringCache(int maxSize, long defaultTtlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize必须大于0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+    }
+
+    /**
+     * 获取缓存值
+     * @param key 键
+     * @return 缓存值，不存在或已过期时返回null
+     */
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            map.remove(key, entry);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * 按默认存活时间放入缓存
+     * @param key 键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        putUntil(key, value, System.currentTimeMillis() + defaultTtlMillis);
+    }
+
+    /**
+     * 放入缓存，指定过期时间点
+     * @param key 键
+     * @param value 值
+     * @param expireAtMillis 过期时间点（毫秒时间戳）
+     */
+    public void putUntil(K key, V value, long expireAtMillis) {
+        if (map.size() >= maxSize && !map.containsKey(key)) {
+            evict();
+        }
+        map.put(key, new Entry<>(value, expireAtMillis));
+    }
+
+    /**
+     * 仅当键不存在（或已过期）时放入缓存
+     * @param key 键
+     * @param value 值
+     * @return 已存在的未过期值，放入成功时返回null
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = System.currentTimeMillis();
+        if (map.size() >= maxSize && !map.containsKey(key)) {
+            evict();
+        }
+        Entry<V> created = new Entry<>(value, now + defaultTtlMillis);
+        while (true) {
+            Entry<V> existing = map.putIfAbsent(key, created);
+            if (existing == null) {
+                return null;
+            }
+            if (!existing.isExpired(now)) {
+                return existing.value;
+            }
+            if (map.replace(key, existing, created)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 移除缓存
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        map.clear();
+    }
+
+    /**
+     * 当前条目数（含尚未剔除的过期条目）
+     */
+    public int size() {
+        return map.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率
+     * @return 0到1之间的命中率，尚无请求时返回0
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0D : (double) hits / total;
+    }
+
+    /**
+     * 容量超限时淘汰条目，同一时刻只有一个线程执行
+     */
+    private void evict() {
+        synchronized (evictLock) {
+            if (map.size() < maxSize) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getValue().isExpired(now)) {
+                    iterator.remove();
+                    evictionCount.increment();
+                }
+            }
+            int target = maxSize * 3 / 4;
+            iterator = map.entrySet().iterator();
+            while (map.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAtMillis;
+
+        private Entry(V value, long expireAtMillis) {
+            this.value = value;
+            this.expireAtMillis = expireAtMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAtMillis <= now;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.shechubbb.smdc.common.util;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑字符串集合
+ * 只保存字符串的64位指纹（FNV-1a），每个元素占8字节，用于大量字符串的存在性判断；
+ * 不同字符串的指纹可能相同，contains可能误判为存在但不会漏判。
+ * 先add，seal后排序去重，再用contains二分查找；非线程安全
+ */
+public class FingerprintSet {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long[] fingerprints = new long[1024];
+
+    private int size;
+
+    private boolean sealed;
+
+    /**
+     * 添加字符串
+     * @param value 字符串
+     */
+    public void add(String value) {
+        if (sealed) {
+            throw new IllegalStateException("集合已封闭，不能再添加");
+        }
+        if (size == fingerprints.length) {
+            fingerprints = Arrays.copyOf(fingerprints, size * 2);
+        }
+        fingerprints[size++] = fingerprint(value);
+    }
+
+    /**
+     * 排序去重，之后只能查询
+     * @return 当前集合
+     */
+    public FingerprintSet seal() {
+        if (!sealed) {
+            Arrays.sort(fingerprints, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || fingerprints[i] != fingerprints[distinct - 1]) {
+                    fingerprints[distinct++] = fingerprints[i];
+                }
+            }
+            size = distinct;
+            fingerprints = Arrays.copyOf(fingerprints, size);
+            sealed = true;
+        }
+        return this;
+    }
+
+    /**
+     * 判断是否可能包含字符串
+     * @param value 字符串
+     * @return 指纹存在时返回true
+     */
+    public boolean contains(String value) {
+        if (!sealed) {
+            throw new IllegalStateException("集合尚未封闭");
+        }
+        return Arrays.binarySearch(fingerprints, 0, size, fingerprint(value)) >= 0;
+    }
+
+    /**
+     * 元素个数，封闭后为去重后的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    private static long fingerprint(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
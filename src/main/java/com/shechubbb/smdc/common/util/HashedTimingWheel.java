@@ -0,0 +1,198 @@
+package com.shechubbb.smdc.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 哈希时间轮
+ * 定时任务按到期时间散列到环形槽位，工作线程每个刻度只处理一个槽位，添加和取消均为O(1)；
+ * 同一刻度到期的任务合并为一批交给处理器，适合大量、精度要求为秒级的延迟任务
+ * @param <T> 任务数据类型
+ */
+@Slf4j
+public class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final List<LinkedList<Timeout<T>>> wheel;
+
+    // 新添加的任务先进入队列，由工作线程放入槽位，槽位只由工作线程访问
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Consumer<List<T>> handler;
+
+    private final Thread worker;
+
+    private final long startNanos;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param name 工作线程名称
+     * @param tickMillis 刻度时长，单位毫秒
+     * @param wheelSize 槽位数，向上取整为2的幂
+     * @param handler 到期任务处理器，在工作线程中按批调用
+     */
+    public HashedTimingWheel(String name, long tickMillis, int wheelSize, Consumer<List<T>> handler) {
+        int slots = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = slots - 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new LinkedList<>());
+        }
+        this.handler = handler;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 添加延迟任务
+     * @param item 任务数据
+     * @param delayMillis 延迟时间，单位毫秒，小于等于0时在下一个刻度执行
+     * @return 可用于取消任务的句柄
+     */
+    public Timeout<T> schedule(T item, long delayMillis) {
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMillis, 0));
+        Timeout<T> timeout = new Timeout<>(item, deadline, size);
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 未到期且未取消的任务数
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * 停止工作线程，未到期的任务不再执行
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            transferPending(tick);
+            List<T> expired = expire(wheel.get((int) (tick & mask)));
+            if (!expired.isEmpty()) {
+                try {
+                    handler.accept(expired);
+                } catch (Exception e) {
+                    log.error("时间轮任务处理失败，数量={}", expired.size(), e);
+                }
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * 将新任务放入对应槽位，已过期的任务放入当前槽位
+     */
+    private void transferPending(long tick) {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long ticks = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (ticks - tick) / wheel.size();
+            wheel.get((int) (ticks & mask)).add(timeout);
+        }
+    }
+
+    /**
+     * 取出槽位中到期的任务，其余任务圈数减一
+     */
+    private List<T> expire(LinkedList<Timeout<T>> bucket) {
+        List<T> expired = new ArrayList<>();
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.rounds <= 0) {
+                iterator.remove();
+                if (timeout.expire()) {
+                    size.decrementAndGet();
+                    expired.add(timeout.item);
+                }
+            } else {
+                timeout.rounds--;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 延迟任务句柄
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private final AtomicInteger size;
+        private long rounds;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Timeout(T item, long deadline, AtomicInteger size) {
+            this.item = item;
+            this.deadline = deadline;
+            this.size = size;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * 取消任务
+         * @return 是否取消成功，任务已到期或已取消时返回false
+         */
+        public synchronized boolean cancel() {
+            if (cancelled || expired) {
+                return false;
+            }
+            cancelled = true;
+            size.decrementAndGet();
+            return true;
+        }
+
+        private synchronized boolean expire() {
+            if (cancelled) {
+                return false;
+            }
+            expired = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shechubbb.smdc.common.util;
+
+/**
+ * JWT数据声明
+ * 令牌一次解析得到的不可变结果
+ */
+public final class JwtClaims {
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 用户类型（USER/ADMIN）
+     */
+    private final String userType;
+
+    /**
+     * 签发时间，单位秒
+     */
+    private final long issuedAt;
+
+    /**
+     * 过期时间，单位秒
+     */
+    private final long expiresAt;
+
+    public JwtClaims(Long userId, String username, String userType, long issuedAt, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.userType = userType;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 是否已过期
+     * @param nowSeconds 当前时间，单位秒
+     * @return 是否已过期
+     */
+    public boolean isExpired(long nowSeconds) {
+        return expiresAt <= nowSeconds;
+    }
+}
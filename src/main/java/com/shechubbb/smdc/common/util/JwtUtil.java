@@ -3,19 +3,24 @@ package com.shechubbb.smdc.common.util;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.Base64;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 
 /**
  * JWT工具类
  * 用于生成和解析JWT令牌（简化版，无第三方依赖）
+ * 验签通过的令牌会缓存解析结果，同一令牌的后续请求无需重复验签
  */
 @Component
 public class JwtUtil {
@@ -27,6 +32,14 @@ public class JwtUtil {
     // JWT过期时间，默认7天
     @Value("${jwt.expiration:604800}")
     private long expiration;
+
+    // 已验证令牌缓存的最大条目数
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // 已验证令牌缓存的最长存活时间，单位秒，不超过令牌本身的过期时间
+    @Value("${jwt.cache.ttl-seconds:3600}")
+    private long cacheTtlSeconds;
     
     // 用户类型：普通用户
     public static final String USER_TYPE_USER = "USER";
@@ -34,6 +47,19 @@ public class JwtUtil {
     // 用户类型：管理员
     public static final String USER_TYPE_ADMIN = "ADMIN";
 
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    // 每个线程复用一个已初始化的Mac实例
+    private final ThreadLocal<Mac> macHolder = ThreadLocal.withInitial(this::createMac);
+
+    // 已验证令牌 -> 数据声明
+    private ExpiringCache<String, JwtClaims> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        claimsCache = new ExpiringCache<>(cacheMaxSize, TimeUnit.SECONDS.toMillis(cacheTtlSeconds));
+    }
+
     /**
      * 创建JWT Token
      * @param userId 用户ID
@@ -55,14 +81,40 @@ public class JwtUtil {
         return createToken(claims);
     }
 
+    /**
+     * 解析并验证令牌
+     * 一次完成验签、载荷解析和过期检查，结果按令牌缓存
+     * @param token JWT令牌
+     * @return 数据声明，令牌无效或已过期时返回null
+     */
+    public JwtClaims parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long nowMillis = System.currentTimeMillis();
+        JwtClaims claims = claimsCache.get(token);
+        if (claims != null) {
+            return claims.isExpired(nowMillis / 1000) ? null : claims;
+        }
+
+        claims = verify(token);
+        if (claims == null || claims.isExpired(nowMillis / 1000)) {
+            return null;
+        }
+        long expireAtMillis = Math.min(TimeUnit.SECONDS.toMillis(claims.getExpiresAt()),
+                nowMillis + TimeUnit.SECONDS.toMillis(cacheTtlSeconds));
+        claimsCache.putUntil(token, claims, expireAtMillis);
+        return claims;
+    }
+
     /**
      * 从JWT令牌中获取用户ID
      * @param token JWT令牌
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Map<String, Object> claims = getClaimsFromToken(token);
-        return claims != null ? Long.valueOf(claims.get("userId").toString()) : null;
+        JwtClaims claims = parse(token);
+        return claims != null ? claims.getUserId() : null;
     }
 
     /**
@@ -71,8 +123,8 @@ public class JwtUtil {
      * @return 用户类型
      */
     public String getUserTypeFromToken(String token) {
-        Map<String, Object> claims = getClaimsFromToken(token);
-        return claims != null ? claims.get("userType").toString() : null;
+        JwtClaims claims = parse(token);
+        return claims != null ? claims.getUserType() : null;
     }
 
     /**
@@ -81,14 +133,15 @@ public class JwtUtil {
      * @return 是否有效
      */
     public boolean validateToken(String token) {
-        Map<String, Object> claims = getClaimsFromToken(token);
-        if (claims == null) {
-            return false;
-        }
-        
-        // 检查过期时间
-        Long exp = Long.valueOf(claims.getOrDefault("exp", 0).toString());
-        return exp > System.currentTimeMillis() / 1000;
+        return parse(token) != null;
+    }
+
+    /**
+     * 获取已验证令牌缓存
+     * @return 令牌缓存
+     */
+    public ExpiringCache<String, JwtClaims> getClaimsCache() {
+        return claimsCache;
     }
 
     /**
@@ -109,7 +162,7 @@ public class JwtUtil {
             
             // 3. 创建签名
             String content = encodedHeader + "." + encodedPayload;
-            String signature = hmacSha256(content, secret);
+            String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(hmacSha256(content));
             
             // 4. 组装JWT
             return content + "." + signature;
@@ -119,30 +172,37 @@ public class JwtUtil {
     }
 
     /**
-     * 从令牌中获取数据声明
+     * 验证签名并解析数据声明，不检查过期时间
      * @param token 令牌
-     * @return 数据声明
+     * @return 数据声明，格式或签名错误时返回null
      */
-    private Map<String, Object> getClaimsFromToken(String token) {
+    private JwtClaims verify(String token) {
         try {
             // 1. 分割JWT
-            String[] parts = token.split("\\.");
-            if (parts.length != 3) {
+            int first = token.indexOf('.');
+            int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+            if (first < 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
                 return null;
             }
             
-            // 2. 验证签名
-            String content = parts[0] + "." + parts[1];
-            String signature = parts[2];
-            
-            String expectedSignature = hmacSha256(content, secret);
-            if (!signature.equals(expectedSignature)) {
+            // 2. 验证签名：比较编码后的签名字符串而不是解码后的字节，
+            // 解码会忽略末位多余的比特，多个不同的签名字符串会被当作同一签名（常量时间比较）
+            String expectedSignature = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(hmacSha256(token.substring(0, second)));
+            if (!MessageDigest.isEqual(expectedSignature.getBytes(StandardCharsets.US_ASCII),
+                    token.substring(second + 1).getBytes(StandardCharsets.US_ASCII))) {
                 return null;
             }
             
             // 3. 解析Payload
-            String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
-            return JSONObject.parseObject(payload);
+            String payload = new String(Base64.getUrlDecoder().decode(token.substring(first + 1, second)),
+                    StandardCharsets.UTF_8);
+            JSONObject json = JSONObject.parseObject(payload);
+            if (json == null) {
+                return null;
+            }
+            return new JwtClaims(json.getLong("userId"), json.getString("username"), json.getString("userType"),
+                    json.getLongValue("iat"), json.getLongValue("exp"));
         } catch (Exception e) {
             return null;
         }
@@ -158,15 +218,21 @@ public class JwtUtil {
     /**
      * HMAC SHA-256签名
      */
-    private String hmacSha256(String data, String secret) {
+    private byte[] hmacSha256(String data) {
+        // doFinal会重置Mac状态，可直接复用
+        return macHolder.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 创建以密钥初始化的Mac实例
+     */
+    private Mac createMac() {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(secretKeySpec);
-            byte[] bytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-        } catch (Exception e) {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            return mac;
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("签名失败", e);
         }
     }
-} 
\ No newline at end of file
+}
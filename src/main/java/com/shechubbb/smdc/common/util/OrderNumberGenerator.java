@@ -0,0 +1,14 @@
+package com.shechubbb.smdc.common.util;
+
+/**
+ * 订单号生成器
+ * 默认实现为{@link SnowflakeOrderNumberGenerator}，可注册自定义Bean替换
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * 生成下一个订单号
+     * @return 订单号，同一生成器及不同节点号的生成器之间均不重复
+     */
+    String nextNumber();
+}
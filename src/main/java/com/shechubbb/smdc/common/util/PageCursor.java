@@ -0,0 +1,95 @@
+package com.shechubbb.smdc.common.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页的位置标记
+ * 记录上一页最后一行的（时间, ID），下一页从该行之后继续读取，不使用OFFSET也不统计总数；
+ * 对外编码为不透明字符串，调用方只需原样回传
+ */
+public final class PageCursor {
+
+    // 单页最大记录数
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final LocalDateTime time;
+
+    private final Long id;
+
+    private PageCursor(LocalDateTime time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    /**
+     * 编码游标
+     * @param time 排序时间，可以为空
+     * @param id 主键
+     * @return 不透明的游标字符串
+     */
+    public static String encode(LocalDateTime time, Long id) {
+        String raw = (time != null ? time.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标字符串
+     * @return 游标，为空时返回null表示从第一页开始
+     */
+    public static PageCursor decode(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new BusinessException("无效的分页游标");
+            }
+            String time = raw.substring(0, separator);
+            return new PageCursor(time.isEmpty() ? null : LocalDateTime.parse(time),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 将每页记录数限制在1到MAX_PAGE_SIZE之间
+     * @param pageSize 请求的每页记录数
+     * @return 实际每页记录数
+     */
+    public static int limitPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 追加游标条件和排序：按（时间, ID）倒序，时间为空的行排在最后
+     * @param wrapper 查询条件
+     * @param timeColumn 时间列
+     * @param idColumn 主键列
+     * @param cursor 游标，为空时从第一页开始
+     */
+    public static <T> void apply(LambdaQueryWrapper<T> wrapper, SFunction<T, LocalDateTime> timeColumn,
+                                 SFunction<T, Long> idColumn, PageCursor cursor) {
+        if (cursor != null) {
+            if (cursor.time != null) {
+                wrapper.and(w -> w.lt(timeColumn, cursor.time)
+                        .or(o -> o.eq(timeColumn, cursor.time).lt(idColumn, cursor.id))
+                        .or(o -> o.isNull(timeColumn)));
+            } else {
+                wrapper.isNull(timeColumn).lt(idColumn, cursor.id);
+            }
+        }
+        wrapper.orderByDesc(timeColumn, idColumn);
+    }
+}
@@ -0,0 +1,67 @@
+package com.shechubbb.smdc.common.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 汉字拼音字典
+ * 数据来自7000通用汉字表（classpath:pinyin/hanzi-pinyin.txt），首次使用时加载
+ */
+public final class PinyinDictionary {
+
+    private static final String RESOURCE = "pinyin/hanzi-pinyin.txt";
+
+    private PinyinDictionary() {
+    }
+
+    /**
+     * 获取汉字的全部读音
+     * @param c 字符
+     * @return 小写无声调读音，常用读音在前；不在字表中时返回null
+     */
+    public static String[] readings(char c) {
+        return Holder.READINGS.get(c);
+    }
+
+    /**
+     * 字典条目数
+     */
+    public static int size() {
+        return Holder.READINGS.size();
+    }
+
+    /**
+     * 延迟加载字典
+     */
+    private static final class Holder {
+        private static final Map<Character, String[]> READINGS = load();
+
+        private static Map<Character, String[]> load() {
+            Map<Character, String[]> readings = new HashMap<>(10000);
+            ClassLoader classLoader = PinyinDictionary.class.getClassLoader();
+            try (InputStream in = classLoader.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("拼音字典不存在: " + RESOURCE);
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (line.startsWith("#") || tab != 1) {
+                        continue;
+                    }
+                    readings.put(line.charAt(0), line.substring(tab + 1).split(","));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return readings;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.shechubbb.smdc.common.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化的JSON响应体
+ * 同时保存原始字节和gzip压缩字节，请求时按Accept-Encoding直接写出，不再序列化和压缩；
+ * 两种编码是不同的表示，各自使用不同的强ETag；ETag由响应内容的摘要生成，内容不变时重建或换实例ETag都不变
+ */
+public final class PreparedJson {
+
+    private static final String GZIP = "gzip";
+
+    private final byte[] raw;
+
+    private final byte[] gzip;
+
+    private final String eTag;
+
+    private final String gzipETag;
+
+    private PreparedJson(byte[] raw, byte[] gzip, String eTag, String gzipETag) {
+        this.raw = raw;
+        this.gzip = gzip;
+        this.eTag = eTag;
+        this.gzipETag = gzipETag;
+    }
+
+    /**
+     * 序列化并压缩
+     * @param objectMapper 与Spring MVC一致的ObjectMapper
+     * @param value 响应对象
+     * @param prefix ETag前缀
+     * @return 预序列化响应体
+     */
+    public static PreparedJson of(ObjectMapper objectMapper, Object value, String prefix) {
+        byte[] raw;
+        try {
+            raw = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("JSON序列化失败", e);
+        }
+        String eTag = etag(prefix, raw);
+        // 压缩版本的ETag在引号内追加后缀
+        String gzipETag = eTag.endsWith("\"")
+                ? eTag.substring(0, eTag.length() - 1) + "-gz\"" : eTag + "-gz";
+        return new PreparedJson(raw, gzip(raw), eTag, gzipETag);
+    }
+
+    /**
+     * 生成响应
+     * 条件请求由Spring根据响应中的ETag处理，未变化时返回304且不写出响应体
+     * @param acceptEncoding 请求头Accept-Encoding
+     * @return 响应
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .eTag(useGzip ? gzipETag : eTag);
+        if (useGzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+            return builder.contentLength(gzip.length).body(gzip);
+        }
+        return builder.contentLength(raw.length).body(raw);
+    }
+
+    public byte[] getRaw() {
+        return raw;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getGzipETag() {
+        return gzipETag;
+    }
+
+    /**
+     * 根据内容摘要生成强ETag
+     * @param prefix 资源前缀
+     * @param contents 响应内容，多段内容按顺序计入摘要
+     * @return 带引号的ETag
+     */
+    public static String etag(String prefix, byte[]... contents) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (byte[] content : contents) {
+            digest.update(content);
+        }
+        return "\"" + prefix + "-" + new BigInteger(1, digest.digest()).toString(36) + "\"";
+    }
+
+    /**
+     * 判断客户端是否接受gzip编码
+     * 显式列出的gzip优先，q=0表示明确拒绝；没有列出gzip时才按*的q值判断
+     * @param acceptEncoding 请求头Accept-Encoding
+     * @return 是否接受gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+        double gzipQuality = -1D;
+        double anyQuality = -1D;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (GZIP.equalsIgnoreCase(coding)) {
+                gzipQuality = Math.max(gzipQuality, quality(tokens));
+            } else if ("*".equals(coding)) {
+                anyQuality = Math.max(anyQuality, quality(tokens));
+            }
+        }
+        return gzipQuality >= 0D ? gzipQuality > 0D : anyQuality > 0D;
+    }
+
+    /**
+     * 编码的q值，未指定时为1，无法解析时视为0
+     */
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=") || param.startsWith("Q=")) {
+                try {
+                    return Math.max(0D, Double.parseDouble(param.substring(2).trim()));
+                } catch (NumberFormatException e) {
+                    return 0D;
+                }
+            }
+        }
+        return 1D;
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
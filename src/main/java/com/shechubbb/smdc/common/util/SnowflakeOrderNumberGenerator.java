@@ -0,0 +1,133 @@
+package com.shechubbb.smdc.common.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 类Snowflake订单号生成器
+ * 格式：yyyyMMddHHmmss(14位) + 节点号(3位) + 秒内序号(6位)，共23位
+ * 秒数和序号打包在一个AtomicLong中通过CAS推进，无锁、无数据库访问；
+ * 单秒序号用尽时借用下一秒，时钟回拨时沿用已发出的最大秒数，保证单调递增
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    /**
+     * 节点号上限（不含）
+     */
+    public static final int MAX_NODE_ID = 1000;
+
+    /**
+     * 每秒序号上限（不含）
+     */
+    static final long MAX_SEQUENCE = 1_000_000L;
+
+    private static final int SEQUENCE_BITS = 20;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final DateTimeFormatter PREFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final String nodeText;
+
+    private final ZoneId zoneId;
+
+    /**
+     * 高位为秒数，低20位为秒内序号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 最近一次格式化的日期前缀，同一秒内复用
+     */
+    private volatile Prefix lastPrefix = new Prefix(-1, null);
+
+    public SnowflakeOrderNumberGenerator(int nodeId) {
+        this(nodeId, ZoneId.systemDefault());
+    }
+
+    public SnowflakeOrderNumberGenerator(int nodeId, ZoneId zoneId) {
+        if (nodeId < 0 || nodeId >= MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在0到" + (MAX_NODE_ID - 1) + "之间: " + nodeId);
+        }
+        this.nodeText = padLeft(nodeId, 3);
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * 生成下一个订单号
+     * @return 订单号
+     */
+    @Override
+    public String nextNumber() {
+        long next;
+        while (true) {
+            long current = state.get();
+            long currentSecond = current >>> SEQUENCE_BITS;
+            long sequence = current & SEQUENCE_MASK;
+            long nowSecond = currentSecond();
+
+            if (nowSecond > currentSecond) {
+                next = nowSecond << SEQUENCE_BITS;
+            } else if (sequence + 1 < MAX_SEQUENCE) {
+                next = current + 1;
+            } else {
+                // 当前秒序号用尽，借用下一秒
+                next = (currentSecond + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        return format(next >>> SEQUENCE_BITS, next & SEQUENCE_MASK);
+    }
+
+    /**
+     * 当前时间秒数，子类可覆盖用于测试
+     */
+    protected long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private String format(long second, long sequence) {
+        Prefix prefix = lastPrefix;
+        if (prefix.second != second) {
+            String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zoneId).format(PREFIX_FORMATTER);
+            prefix = new Prefix(second, text);
+            lastPrefix = prefix;
+        }
+        return new StringBuilder(23)
+                .append(prefix.text)
+                .append(nodeText)
+                .append(padLeft(sequence, 6))
+                .toString();
+    }
+
+    private static String padLeft(long value, int width) {
+        String text = Long.toString(value);
+        if (text.length() >= width) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(width);
+        for (int i = text.length(); i < width; i++) {
+            sb.append('0');
+        }
+        return sb.append(text).toString();
+    }
+
+    /**
+     * 秒数与格式化前缀，作为整体发布保证读取一致
+     */
+    private static final class Prefix {
+        private final long second;
+        private final String text;
+
+        private Prefix(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
@@ -4,8 +4,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.List;
-
 /**
  * 图片URL配置类
  */
@@ -25,14 +23,21 @@ public class ImageConfig {
 
     /**
      * 图片URL转换器
+     * 服务器地址前缀在创建时计算一次，由@ImageUrl字段的序列化器和反序列化器调用
      */
     public static class ImageUrlConverter {
-        private final String baseUrl;
-        private final int serverPort;
+        /**
+         * 服务器地址前缀，不以/结尾
+         */
+        private final String prefix;
 
         public ImageUrlConverter(String baseUrl, int serverPort) {
-            this.baseUrl = baseUrl;
-            this.serverPort = serverPort;
+            if (baseUrl != null && !baseUrl.isEmpty()) {
+                this.prefix = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            } else {
+                // 默认使用localhost
+                this.prefix = "http://localhost:" + serverPort;
+            }
         }
 
         /**
@@ -52,45 +57,21 @@ public class ImageConfig {
             }
 
             // 确保相对URL以/开头
-            if (!relativeUrl.startsWith("/")) {
-                relativeUrl = "/" + relativeUrl;
-            }
-
-            // 使用配置的baseUrl或默认构建
-            if (baseUrl != null && !baseUrl.isEmpty()) {
-                return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) + relativeUrl : baseUrl + relativeUrl;
-            } else {
-                // 默认使用localhost
-                return "http://localhost:" + serverPort + relativeUrl;
-            }
+            return relativeUrl.charAt(0) == '/' ? prefix + relativeUrl : prefix + '/' + relativeUrl;
         }
-        
+
         /**
-         * 处理订单详情中的菜品图片URL
-         * 
-         * @param orderDetails 订单详情列表
+         * 将本服务器的绝对URL转换为相对URL，其他地址原样返回
+         *
+         * @param url URL
+         * @return 相对URL
          */
-        public void processOrderDetailImages(List<?> orderDetails) {
-            if (orderDetails == null || orderDetails.isEmpty()) {
-                return;
-            }
-            
-            // 遍历订单详情列表，处理图片URL
-            for (Object detail : orderDetails) {
-                try {
-                    // 使用反射获取dishImage属性
-                    java.lang.reflect.Method getDishImage = detail.getClass().getMethod("getDishImage");
-                    java.lang.reflect.Method setDishImage = detail.getClass().getMethod("setDishImage", String.class);
-                    
-                    String dishImage = (String) getDishImage.invoke(detail);
-                    if (dishImage != null && !dishImage.isEmpty()) {
-                        // 转换为完整URL
-                        setDishImage.invoke(detail, getFullImageUrl(dishImage));
-                    }
-                } catch (Exception e) {
-                    // 忽略反射异常
-                }
+        public String toRelativeUrl(String url) {
+            if (url != null && url.length() > prefix.length() && url.startsWith(prefix)
+                    && url.charAt(prefix.length()) == '/') {
+                return url.substring(prefix.length());
             }
+            return url;
         }
     }
-} 
\ No newline at end of file
+}
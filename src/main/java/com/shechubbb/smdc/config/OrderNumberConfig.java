@@ -0,0 +1,28 @@
+package com.shechubbb.smdc.config;
+
+import com.shechubbb.smdc.common.util.OrderNumberGenerator;
+import com.shechubbb.smdc.common.util.SnowflakeOrderNumberGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 订单号生成配置类
+ */
+@Configuration
+public class OrderNumberConfig {
+
+    // 节点号，多实例部署时每个实例必须配置不同的值（0-999）
+    @Value("${smdc.order.node-id:0}")
+    private int nodeId;
+
+    /**
+     * 默认订单号生成器，注册自定义OrderNumberGenerator时不生效
+     */
+    @Bean
+    @ConditionalOnMissingBean(OrderNumberGenerator.class)
+    public OrderNumberGenerator orderNumberGenerator() {
+        return new SnowflakeOrderNumberGenerator(nodeId);
+    }
+}
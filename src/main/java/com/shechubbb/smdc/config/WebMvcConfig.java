@@ -1,12 +1,13 @@
 package com.shechubbb.smdc.config;
 
 import com.shechubbb.smdc.interceptor.JwtAuthenticationInterceptor;
+import com.shechubbb.smdc.servlet.UploadFileServlet;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -15,9 +16,6 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    @Value("${smdc.upload-path}")
-    private String uploadPath;
-    
     @Autowired
     private JwtAuthenticationInterceptor jwtAuthenticationInterceptor;
 
@@ -35,13 +33,14 @@ public class WebMvcConfig implements WebMvcConfigurer {
     }
 
     /**
-     * 设置静态资源映射
+     * 上传文件访问路径，由独立的Servlet处理，不经过DispatcherServlet
      */
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 配置上传文件访问路径
-        registry.addResourceHandler("/upload/**")
-                .addResourceLocations("file:" + uploadPath + "/");
+    @Bean
+    public ServletRegistrationBean<UploadFileServlet> uploadFileServletRegistration(UploadFileServlet uploadFileServlet) {
+        ServletRegistrationBean<UploadFileServlet> registration =
+                new ServletRegistrationBean<>(uploadFileServlet, "/upload/*");
+        registration.setName("uploadFileServlet");
+        return registration;
     }
     
     /**
@@ -52,7 +51,6 @@ public class WebMvcConfig implements WebMvcConfigurer {
         // 注册JWT认证拦截器
         registry.addInterceptor(jwtAuthenticationInterceptor)
                 .addPathPatterns("/**")  // 拦截所有请求
-                .excludePathPatterns("/error")  // 排除错误页面
-                .excludePathPatterns("/upload/**"); // 排除上传文件访问路径
+                .excludePathPatterns("/error");  // 排除错误页面
     }
-} 
\ No newline at end of file
+}
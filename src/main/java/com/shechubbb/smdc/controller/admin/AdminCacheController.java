@@ -0,0 +1,49 @@
+package com.shechubbb.smdc.controller.admin;
+
+import com.shechubbb.smdc.common.cache.PrincipalCache;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.JwtUtil;
+import com.shechubbb.smdc.common.util.UserContext;
+import com.shechubbb.smdc.servlet.UploadFileServlet;
+import com.shechubbb.smdc.vo.CacheStatsVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 管理后台缓存监控控制器
+ */
+@RestController
+@RequestMapping("/admin/cache")
+public class AdminCacheController {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UploadFileServlet uploadFileServlet;
+
+    /**
+     * 获取缓存命中统计
+     * @return 各缓存的统计信息
+     */
+    @GetMapping("/stats")
+    public Result<List<CacheStatsVO>> stats() {
+        if (!UserContext.isAdmin()) {
+            return Result.error("无权限");
+        }
+        List<CacheStatsVO> stats = new ArrayList<>();
+        stats.add(CacheStatsVO.of("jwtClaims", jwtUtil.getClaimsCache()));
+        stats.add(CacheStatsVO.of("user", principalCache.getUserCache()));
+        stats.add(CacheStatsVO.of("employee", principalCache.getEmployeeCache()));
+        stats.add(CacheStatsVO.of("uploadFile", uploadFileServlet.getHotCache()));
+        return Result.success(stats);
+    }
+}
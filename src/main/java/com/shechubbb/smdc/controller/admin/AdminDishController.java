@@ -3,6 +3,7 @@ package com.shechubbb.smdc.controller.admin;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.shechubbb.smdc.common.result.Result;
 import com.shechubbb.smdc.service.DishService;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.DishVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,19 @@ public class AdminDishController {
         return Result.success(pageInfo);
     }
 
+    /**
+     * 菜品游标分页查询，按更新时间倒序，默认不统计总数
+     */
+    @GetMapping("/scroll")
+    public Result<CursorPage<DishVO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        CursorPage<DishVO> cursorPage = dishService.scroll(name, cursor, pageSize, withTotal);
+        return Result.success(cursorPage);
+    }
+
     /**
      * 根据ID获取菜品信息
      */
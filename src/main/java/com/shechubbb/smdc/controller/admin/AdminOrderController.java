@@ -1,12 +1,17 @@
 package com.shechubbb.smdc.controller.admin;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.shechubbb.smdc.common.exception.BusinessException;
 import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.stream.OrderEventHub;
+import com.shechubbb.smdc.common.util.UserContext;
 import com.shechubbb.smdc.service.OrderService;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.OrderVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -21,6 +26,9 @@ public class AdminOrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderEventHub orderEventHub;
+
     /**
      * 订单分页查询
      */
@@ -34,6 +42,34 @@ public class AdminOrderController {
         return Result.success(pageInfo);
     }
 
+    /**
+     * 订单游标分页查询，按创建时间倒序，默认不统计总数
+     */
+    @GetMapping("/scroll")
+    public Result<CursorPage<OrderVO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String number,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        CursorPage<OrderVO> cursorPage = orderService.adminScroll(number, status, cursor, pageSize, withTotal);
+        return Result.success(cursorPage);
+    }
+
+    /**
+     * 订单实时推送（SSE），推送订单创建、支付、接单、取消、完成事件
+     * 断线重连时浏览器自动携带Last-Event-ID请求头，首次连接也可通过lastEventId参数指定
+     */
+    @GetMapping("/stream")
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        if (!UserContext.isAdmin()) {
+            throw new BusinessException("无权限");
+        }
+        return orderEventHub.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
     /**
      * 获取订单详情
      */
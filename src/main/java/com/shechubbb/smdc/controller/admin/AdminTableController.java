@@ -1,13 +1,16 @@
 package com.shechubbb.smdc.controller.admin;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.shechubbb.smdc.common.cache.TableOccupancy;
 import com.shechubbb.smdc.common.result.Result;
 import com.shechubbb.smdc.entity.TableInfo;
 import com.shechubbb.smdc.service.TableInfoService;
+import com.shechubbb.smdc.vo.TableFloorVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +24,9 @@ public class AdminTableController {
     @Autowired
     private TableInfoService tableInfoService;
 
+    @Autowired
+    private TableOccupancy tableOccupancy;
+
     /**
      * 桌位分页查询
      */
@@ -68,4 +74,12 @@ public class AdminTableController {
         String qrCode = tableInfoService.generateQrCode(id);
         return Result.success(qrCode);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 桌位平面图：全部桌位的实时占用状态和未结束订单数
+     */
+    @GetMapping("/floor")
+    public Result<List<TableFloorVO>> floor() {
+        return Result.success(tableOccupancy.floor());
+    }
+}
@@ -1,18 +1,18 @@
 package com.shechubbb.smdc.controller.admin;
 
 import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.task.UploadGarbageCollector;
+import com.shechubbb.smdc.common.util.UserContext;
+import com.shechubbb.smdc.service.UploadService;
+import com.shechubbb.smdc.vo.UploadGcReportVO;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.servlet.http.HttpServletRequest;
-import java.io.File;
-import java.io.IOException;
-import java.util.UUID;
-
 /**
  * 文件上传控制器
  */
@@ -21,39 +21,31 @@ import java.util.UUID;
 @RequestMapping("/admin/upload")
 public class AdminUploadController {
 
-    @Value("${smdc.upload-path}")
-    private String uploadPath;
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
 
     /**
      * 图片上传
+     * 相同内容的图片返回同一路径
      */
     @PostMapping("/image")
-    public Result<String> uploadImage(MultipartFile file, HttpServletRequest request) {
-        log.info("图片文件上传：{}", file.getOriginalFilename());
-        
-        // 创建目录
-        File dir = new File(uploadPath);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-        
-        // 获取原始文件名和扩展名
-        String originalFilename = file.getOriginalFilename();
-        String suffix = originalFilename.substring(originalFilename.lastIndexOf("."));
-        
-        // 使用UUID重命名文件，防止重名
-        String fileName = UUID.randomUUID().toString() + suffix;
-        
-        try {
-            // 保存文件
-            file.transferTo(new File(dir, fileName));
-            
-            // 返回完整的访问路径
-            String url = "/upload/" + fileName;
-            return Result.success(url);
-        } catch (IOException e) {
-            log.error("文件上传失败：", e);
-            return Result.error("文件上传失败");
+    public Result<String> uploadImage(MultipartFile file) {
+        log.info("图片文件上传：{}", file != null ? file.getOriginalFilename() : null);
+        return Result.success(uploadService.saveImage(file));
+    }
+
+    /**
+     * 未引用上传文件清理演练报告
+     * 只统计可清理的文件，不删除
+     */
+    @GetMapping("/gc/report")
+    public Result<UploadGcReportVO> gcReport() {
+        if (!UserContext.isAdmin()) {
+            return Result.error("无权限");
         }
+        return Result.success(uploadGarbageCollector.run(true));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.shechubbb.smdc.controller.mini;
+
+import com.shechubbb.smdc.common.cache.TableResolver;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.UserContext;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.entity.User;
+import com.shechubbb.smdc.service.MenuService;
+import com.shechubbb.smdc.service.OrderService;
+import com.shechubbb.smdc.service.ShopInfoService;
+import com.shechubbb.smdc.vo.BootstrapVO;
+import com.shechubbb.smdc.vo.MenuSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 小程序扫码首屏控制器
+ * 扫码后一次返回桌位、店铺信息、完整菜单和待支付订单，减少首屏请求往返
+ */
+@Slf4j
+@RestController
+@RequestMapping("/mini/bootstrap")
+public class MiniBootstrapController {
+
+    @Autowired
+    private TableResolver tableResolver;
+
+    @Autowired
+    private ShopInfoService shopInfoService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * 获取扫码首屏数据
+     * @param tableCode 桌位编码（也支持桌位ID或名称）
+     * @return 首屏数据
+     */
+    @GetMapping("/{tableCode}")
+    public Result<BootstrapVO> bootstrap(@PathVariable String tableCode) {
+        TableInfo tableInfo = tableResolver.resolve(tableCode);
+        if (tableInfo == null) {
+            return Result.error("无效的桌台号");
+        }
+
+        MenuSnapshot snapshot = menuService.getSnapshot();
+        BootstrapVO bootstrapVO = new BootstrapVO();
+        bootstrapVO.setTableInfo(tableInfo);
+        bootstrapVO.setShopInfo(shopInfoService.getCachedShopInfo());
+        bootstrapVO.setMenuVersion(snapshot.getVersion());
+        bootstrapVO.setMenu(snapshot.getMenu());
+
+        // 待支付订单是唯一需要查询数据库的部分
+        User currentUser = UserContext.getCurrentUser();
+        if (currentUser != null) {
+            bootstrapVO.setPendingOrder(orderService.getPendingOrder(currentUser.getId(), tableInfo));
+        }
+        return Result.success(bootstrapVO);
+    }
+}
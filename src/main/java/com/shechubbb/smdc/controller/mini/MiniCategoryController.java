@@ -1,14 +1,12 @@
 package com.shechubbb.smdc.controller.mini;
 
-import com.shechubbb.smdc.common.result.Result;
-import com.shechubbb.smdc.entity.Category;
-import com.shechubbb.smdc.service.CategoryService;
+import com.shechubbb.smdc.service.MenuService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * 小程序分类控制器
  */
@@ -18,14 +16,14 @@ import java.util.List;
 public class MiniCategoryController {
 
     @Autowired
-    private CategoryService categoryService;
+    private MenuService menuService;
 
     /**
      * 获取分类列表
+     * 直接写出快照中预序列化的响应体，携带If-None-Match且菜单未变化时返回304
      */
     @GetMapping("/list")
-    public Result<List<Category>> list() {
-        List<Category> list = categoryService.list();
-        return Result.success(list);
+    public ResponseEntity<byte[]> list(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return menuService.getSnapshot().getCategoriesJson().toResponseEntity(acceptEncoding);
     }
-} 
\ No newline at end of file
+}
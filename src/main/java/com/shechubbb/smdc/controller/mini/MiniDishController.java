@@ -1,16 +1,26 @@
 package com.shechubbb.smdc.controller.mini;
 
+import com.shechubbb.smdc.common.cache.DishSearchIndex;
 import com.shechubbb.smdc.common.result.Result;
 import com.shechubbb.smdc.service.DishService;
+import com.shechubbb.smdc.service.MenuService;
 import com.shechubbb.smdc.vo.DishVO;
+import com.shechubbb.smdc.vo.MenuSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 小程序菜品控制器
+ * 读接口以响应内容摘要作为ETag（菜品列表取预序列化响应体的摘要，菜品详情取菜单快照的摘要），内容未变化的条件请求直接返回304；
+ * 菜品列表直接写出快照中预序列化、预压缩的响应体
  */
 @Slf4j
 @RestController
@@ -20,30 +30,62 @@ public class MiniDishController {
     @Autowired
     private DishService dishService;
 
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private DishSearchIndex dishSearchIndex;
+
+    // 搜索结果最大返回数量
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     /**
      * 根据分类ID获取菜品列表
      */
     @GetMapping("/list/{categoryId}")
-    public Result<List<DishVO>> listByPath(@PathVariable Long categoryId) {
-        List<DishVO> list = dishService.listByCategoryId(categoryId);
-        return Result.success(list);
+    public ResponseEntity<byte[]> listByPath(@PathVariable Long categoryId,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return menuService.getSnapshot().getDishesJson(categoryId).toResponseEntity(acceptEncoding);
     }
 
     /**
      * 根据分类ID获取菜品列表 (支持请求参数方式)
      */
     @GetMapping("/list")
-    public Result<List<DishVO>> list(@RequestParam(value = "categoryId") Long categoryId) {
-        List<DishVO> list = dishService.listByCategoryId(categoryId);
-        return Result.success(list);
+    public ResponseEntity<byte[]> list(@RequestParam(value = "categoryId") Long categoryId,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return menuService.getSnapshot().getDishesJson(categoryId).toResponseEntity(acceptEncoding);
     }
 
     /**
      * 获取菜品详情
      */
     @GetMapping("/detail/{id}")
-    public Result<DishVO> detail(@PathVariable Long id) {
-        DishVO dishVO = dishService.getWithSpecification(id);
-        return Result.success(dishVO);
+    public Result<DishVO> detail(@PathVariable Long id, WebRequest request) {
+        MenuSnapshot snapshot = menuService.getSnapshot();
+        // 在售菜品直接从菜单快照读取，快照ETag覆盖其内容，可以返回304
+        DishVO dishVO = snapshot.getDishById().get(id);
+        if (dishVO != null) {
+            return request.checkNotModified(snapshot.getETag()) ? null : Result.success(dishVO);
+        }
+        // 停售菜品回退到数据库查询，不在快照ETag范围内，不做条件请求判断
+        return Result.success(dishService.getWithSpecification(id));
+    }
+
+    /**
+     * 搜索在售菜品，支持汉字、全拼和首字母
+     */
+    @GetMapping("/search")
+    public Result<List<DishVO>> search(@RequestParam String keyword,
+                                       @RequestParam(defaultValue = "20") Integer limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        MenuSnapshot snapshot = menuService.getSnapshot();
+        Map<Long, DishVO> dishById = snapshot.getDishById();
+        List<DishVO> dishes = new ArrayList<>();
+        // 索引包含停售菜品，在索引内按快照过滤，保证在售菜品足够时返回满size个
+        for (Long id : dishSearchIndex.search(keyword, size, dishById::containsKey)) {
+            dishes.add(dishById.get(id));
+        }
+        return Result.success(dishes);
     }
-} 
\ No newline at end of file
+}
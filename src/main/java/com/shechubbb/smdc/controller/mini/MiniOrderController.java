@@ -1,18 +1,23 @@
 package com.shechubbb.smdc.controller.mini;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.shechubbb.smdc.common.cache.IdempotencyStore;
+import com.shechubbb.smdc.common.cache.TableResolver;
 import com.shechubbb.smdc.common.constant.PayMethodConstant;
 import com.shechubbb.smdc.common.exception.BusinessException;
 import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.stream.OrderStatusNotifier;
 import com.shechubbb.smdc.common.util.UserContext;
 import com.shechubbb.smdc.entity.TableInfo;
 import com.shechubbb.smdc.entity.User;
 import com.shechubbb.smdc.service.OrderService;
-import com.shechubbb.smdc.service.TableInfoService;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.OrderVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,17 +31,29 @@ import java.util.UUID;
 @RequestMapping("/mini/order")
 public class MiniOrderController {
 
+    private static final String SCOPE_CREATE = "order_create";
+
+    private static final String SCOPE_PAY = "order_pay";
+
     @Autowired
     private OrderService orderService;
     
     @Autowired
-    private TableInfoService tableInfoService;
+    private TableResolver tableResolver;
+
+    @Autowired
+    private OrderStatusNotifier orderStatusNotifier;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
 
     /**
      * 创建订单
+     * 携带Idempotency-Key请求头时，同一幂等键的重试直接返回首次创建的订单ID
      */
     @PostMapping("/create")
-    public Result<Long> create(@RequestBody OrderVO orderVO) {
+    public Result<Long> create(@RequestBody OrderVO orderVO,
+                               @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         // 从UserContext获取当前登录用户信息
         User currentUser = UserContext.getCurrentUser();
         if (currentUser == null) {
@@ -46,15 +63,17 @@ public class MiniOrderController {
         // 设置订单的用户ID
         orderVO.setUserId(currentUser.getId());
         
-        Long orderId = orderService.createOrder(orderVO);
-        return Result.success(orderId);
+        return idempotencyStore.execute(currentUser.getId(), SCOPE_CREATE, idempotencyKey, orderVO,
+                new TypeReference<Result<Long>>() {}, () -> Result.success(orderService.createOrder(orderVO)));
     }
 
     /**
      * 支付订单
+     * 携带Idempotency-Key请求头时，同一幂等键的重试直接返回首次支付的结果
      */
     @PostMapping("/pay")
-    public Result<Map<String, String>> pay(@RequestBody Map<String, Object> map) {
+    public Result<Map<String, String>> pay(@RequestBody Map<String, Object> map,
+                                           @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("订单支付请求参数: {}", map);
         
         // 从UserContext获取当前登录用户信息
@@ -63,6 +82,14 @@ public class MiniOrderController {
             return Result.error("请先登录");
         }
         
+        return idempotencyStore.execute(currentUser.getId(), SCOPE_PAY, idempotencyKey, map,
+                new TypeReference<Result<Map<String, String>>>() {}, () -> doPay(map, currentUser));
+    }
+
+    /**
+     * 执行支付
+     */
+    private Result<Map<String, String>> doPay(Map<String, Object> map, User currentUser) {
         if (map == null || !map.containsKey("id")) {
             log.error("支付失败: 订单ID为空");
             return Result.error("订单ID不能为空");
@@ -148,6 +175,24 @@ public class MiniOrderController {
         return Result.success(pageInfo);
     }
 
+    /**
+     * 订单列表（游标分页，用于上拉加载）
+     */
+    @GetMapping("/scroll")
+    public Result<CursorPage<OrderVO>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) Integer status) {
+        // 从UserContext获取当前登录用户信息
+        User currentUser = UserContext.getCurrentUser();
+        if (currentUser == null) {
+            return Result.error("请先登录");
+        }
+        
+        CursorPage<OrderVO> cursorPage = orderService.userScroll(currentUser.getId(), status, cursor, pageSize, false);
+        return Result.success(cursorPage);
+    }
+
     /**
      * 订单详情
      */
@@ -169,13 +214,31 @@ public class MiniOrderController {
         return Result.success(orderVO);
     }
     
+    /**
+     * 等待订单状态变化（长轮询）
+     * 订单状态与since不同时立即返回最新状态，否则挂起请求直到状态变化或超时，超时返回当前状态
+     */
+    @GetMapping("/{id}/await")
+    public DeferredResult<Result<Integer>> await(@PathVariable Long id,
+                                                 @RequestParam(required = false) Integer since) {
+        // 从UserContext获取当前登录用户信息
+        User currentUser = UserContext.getCurrentUser();
+        if (currentUser == null) {
+            DeferredResult<Result<Integer>> deferred = new DeferredResult<>();
+            deferred.setResult(Result.error("请先登录"));
+            return deferred;
+        }
+        
+        return orderStatusNotifier.await(id, currentUser.getId(), since);
+    }
+    
     /**
      * 扫码获取桌位信息
      */
     @GetMapping("/table/{code}")
     public Result<Long> table(@PathVariable String code) {
         // 根据桌位码查询桌位
-        TableInfo tableInfo = tableInfoService.getByCode(code);
+        TableInfo tableInfo = tableResolver.resolveByCode(code);
         if (tableInfo == null) {
             return Result.error("无效的桌位码");
         }
@@ -1,11 +1,16 @@
 package com.shechubbb.smdc.controller.mini;
 
 import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.PreparedJson;
 import com.shechubbb.smdc.entity.ShopInfo;
 import com.shechubbb.smdc.service.ShopInfoService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,6 +25,22 @@ public class MiniShopController {
     @Autowired
     private ShopInfoService shopInfoService;
     
+    /**
+     * 获取店铺信息（可缓存）
+     * 直接写出预序列化的响应体，携带If-None-Match且店铺信息未变化时返回304
+     * @param acceptEncoding 请求头Accept-Encoding
+     * @return 店铺信息
+     */
+    @GetMapping("/info")
+    public ResponseEntity<?> getCachedShopInfo(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        PreparedJson json = shopInfoService.getShopInfoJson();
+        if (json != null) {
+            return json.toResponseEntity(acceptEncoding);
+        }
+        return ResponseEntity.ok(Result.error("获取店铺信息失败"));
+    }
+    
     /**
      * 获取店铺信息
      * @return 店铺信息
@@ -27,7 +48,7 @@ public class MiniShopController {
     @PostMapping("/info")
     public Result<ShopInfo> getShopInfo() {
         log.info("获取店铺信息");
-        ShopInfo shopInfo = shopInfoService.getShopInfo();
+        ShopInfo shopInfo = shopInfoService.getCachedShopInfo();
         if (shopInfo != null) {
             return Result.success(shopInfo);
         }
@@ -3,6 +3,7 @@ package com.shechubbb.smdc.entity;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.shechubbb.smdc.common.json.ImageUrl;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -42,6 +43,7 @@ public class Dish implements Serializable {
     /**
      * 图片
      */
+    @ImageUrl
     private String image;
 
     /**
@@ -0,0 +1,60 @@
+package com.shechubbb.smdc.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 幂等请求记录实体类
+ */
+@Data
+@TableName("idempotency_record")
+public class IdempotencyRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 主键
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 用户id
+     */
+    private Long userId;
+
+    /**
+     * 接口范围，如order_create、order_pay
+     */
+    private String scope;
+
+    /**
+     * 客户端生成的幂等键
+     */
+    private String idemKey;
+
+    /**
+     * 请求体指纹（SHA-256），同一幂等键的请求体不一致时拒绝
+     */
+    private String fingerprint;
+
+    /**
+     * 状态，0处理中，1已完成
+     */
+    private Integer status;
+
+    /**
+     * 首次请求的响应结果（JSON）
+     */
+    private String response;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
@@ -39,6 +39,21 @@ public class Order implements Serializable {
      */
     private String tableId;
 
+    /**
+     * 桌位名称（下单时缓存）
+     */
+    private String tableName;
+
+    /**
+     * 桌位二维码（下单时缓存）
+     */
+    private String tableCode;
+
+    /**
+     * 用户昵称（下单时缓存，用户没有昵称时为空字符串）
+     */
+    private String userName;
+
     /**
      * 总金额
      */
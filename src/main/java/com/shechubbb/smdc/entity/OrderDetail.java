@@ -3,6 +3,7 @@ package com.shechubbb.smdc.entity;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.shechubbb.smdc.common.json.ImageUrl;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -62,6 +63,7 @@ public class OrderDetail implements Serializable {
     /**
      * 菜品图片
      */
+    @ImageUrl
     private String dishImage;
     
     /**
@@ -3,6 +3,7 @@ package com.shechubbb.smdc.entity;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.shechubbb.smdc.common.json.ImageUrl;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -36,6 +37,7 @@ public class ShopInfo implements Serializable {
     /**
      * 店铺logo
      */
+    @ImageUrl
     private String logo;
 
     /**
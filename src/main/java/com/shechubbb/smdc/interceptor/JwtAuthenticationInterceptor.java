@@ -1,5 +1,7 @@
 package com.shechubbb.smdc.interceptor;
 
+import com.shechubbb.smdc.common.cache.PrincipalCache;
+import com.shechubbb.smdc.common.util.JwtClaims;
 import com.shechubbb.smdc.common.util.JwtUtil;
 import com.shechubbb.smdc.common.util.UserContext;
 import com.shechubbb.smdc.entity.Employee;
@@ -10,7 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -21,7 +23,7 @@ import javax.servlet.http.HttpServletResponse;
  */
 @Slf4j
 @Component
-public class JwtAuthenticationInterceptor implements HandlerInterceptor {
+public class JwtAuthenticationInterceptor implements AsyncHandlerInterceptor {
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -32,27 +34,36 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // 从请求头获取Authorization
         String token = request.getHeader("Authorization");
         
+        // EventSource无法设置请求头，推送接口允许通过查询参数传递token
+        if (token == null && isStreamAPI(request.getRequestURI()) && StringUtils.hasText(request.getParameter("token"))) {
+            token = "Bearer " + request.getParameter("token");
+        }
+        
         // 检查token前缀（Bearer）
         if (token != null && token.startsWith("Bearer ")) {
             // 去除前缀
             token = token.substring(7);
             
-            // 验证token有效性
-            if (jwtUtil.validateToken(token)) {
+            // 一次完成验签和解析，无效或过期时返回null
+            JwtClaims claims = jwtUtil.parse(token);
+            if (claims != null) {
                 // 获取用户ID和类型
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                String userType = jwtUtil.getUserTypeFromToken(token);
+                Long userId = claims.getUserId();
+                String userType = claims.getUserType();
                 
                 if (userId != null) {
                     // 根据用户类型加载不同类型的用户
                     if (JwtUtil.USER_TYPE_ADMIN.equals(userType)) {
                         // 管理员
-                        Employee employee = employeeService.getById(userId);
+                        Employee employee = loadEmployee(userId);
                         if (employee != null) {
                             // 设置管理员到上下文
                             UserContext.setCurrentAdmin(employee);
@@ -61,7 +72,7 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
                         }
                     } else {
                         // 普通用户
-                        User user = userService.getById(userId);
+                        User user = loadUser(userId);
                         if (user != null) {
                             // 将用户信息设置到上下文中
                             UserContext.setCurrentUser(user);
@@ -93,6 +104,52 @@ public class JwtAuthenticationInterceptor implements HandlerInterceptor {
         UserContext.remove();
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // 异步请求（如SSE推送）不会回调afterCompletion，请求线程释放前清除用户信息
+        UserContext.remove();
+    }
+
+    /**
+     * 判断是否为推送接口
+     * @param requestURI 请求URI
+     * @return 是否为推送接口
+     */
+    private boolean isStreamAPI(String requestURI) {
+        return requestURI.endsWith("/admin/order/stream");
+    }
+
+    /**
+     * 加载用户，优先读取身份缓存
+     * @param userId 用户ID
+     * @return 用户信息
+     */
+    private User loadUser(Long userId) {
+        User user = principalCache.getUser(userId);
+        if (user == null) {
+            // 失效计数须在查询前读取，查询期间用户被修改时不缓存查到的旧数据
+            long stamp = principalCache.userStamp(userId);
+            user = userService.getById(userId);
+            principalCache.putUser(user, stamp);
+        }
+        return user;
+    }
+
+    /**
+     * 加载管理员，优先读取身份缓存
+     * @param employeeId 员工ID
+     * @return 员工信息
+     */
+    private Employee loadEmployee(Long employeeId) {
+        Employee employee = principalCache.getEmployee(employeeId);
+        if (employee == null) {
+            long stamp = principalCache.employeeStamp(employeeId);
+            employee = employeeService.getById(employeeId);
+            principalCache.putEmployee(employee, stamp);
+        }
+        return employee;
+    }
+
     /**
      * 判断是否为公开API，不需要身份验证
      * @param requestURI 请求URI
@@ -3,10 +3,24 @@ package com.shechubbb.smdc.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.shechubbb.smdc.entity.Dish;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 菜品Mapper接口
  */
 @Mapper
 public interface DishMapper extends BaseMapper<Dish> {
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取全部菜品图片路径，用于清理未引用的上传文件
+     * @param handler 逐行处理
+     */
+    @Select("SELECT image FROM dish WHERE image IS NOT NULL AND image <> ''")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(String.class)
+    void streamImages(ResultHandler<String> handler);
+}
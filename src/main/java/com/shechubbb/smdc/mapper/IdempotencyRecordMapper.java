@@ -0,0 +1,12 @@
+package com.shechubbb.smdc.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.shechubbb.smdc.entity.IdempotencyRecord;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 幂等请求记录Mapper接口
+ */
+@Mapper
+public interface IdempotencyRecordMapper extends BaseMapper<IdempotencyRecord> {
+}
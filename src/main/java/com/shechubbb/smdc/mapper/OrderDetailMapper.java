@@ -3,10 +3,24 @@ package com.shechubbb.smdc.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.shechubbb.smdc.entity.OrderDetail;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 订单明细Mapper接口
  */
 @Mapper
 public interface OrderDetailMapper extends BaseMapper<OrderDetail> {
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取全部订单明细的菜品图片路径，用于清理未引用的上传文件
+     * @param handler 逐行处理
+     */
+    @Select("SELECT dish_image FROM order_detail WHERE dish_image IS NOT NULL AND dish_image <> ''")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(String.class)
+    void streamDishImages(ResultHandler<String> handler);
+}
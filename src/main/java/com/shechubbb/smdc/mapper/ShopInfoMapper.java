@@ -3,10 +3,24 @@ package com.shechubbb.smdc.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.shechubbb.smdc.entity.ShopInfo;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 /**
  * 店铺信息Mapper接口
  */
 @Mapper
 public interface ShopInfoMapper extends BaseMapper<ShopInfo> {
-} 
\ No newline at end of file
+
+    /**
+     * 流式读取店铺logo路径，用于清理未引用的上传文件
+     * @param handler 逐行处理
+     */
+    @Select("SELECT logo FROM shop_info WHERE logo IS NOT NULL AND logo <> ''")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(String.class)
+    void streamLogos(ResultHandler<String> handler);
+}
@@ -3,6 +3,7 @@ package com.shechubbb.smdc.service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.shechubbb.smdc.entity.Dish;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.DishVO;
 
 import java.util.List;
@@ -21,6 +22,16 @@ public interface DishService extends IService<Dish> {
      */
     Page<DishVO> page(int page, int pageSize, String name);
 
+    /**
+     * 游标分页查询，按更新时间倒序
+     * @param name 菜品名称
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    CursorPage<DishVO> scroll(String name, String cursor, int pageSize, boolean withTotal);
+
     /**
      * 添加菜品
      * @param dishVO 菜品信息
@@ -0,0 +1,45 @@
+package com.shechubbb.smdc.service;
+
+import com.shechubbb.smdc.entity.Category;
+import com.shechubbb.smdc.vo.DishVO;
+import com.shechubbb.smdc.vo.MenuSnapshot;
+
+import java.util.List;
+
+/**
+ * 菜单快照服务接口
+ * 小程序端菜单读取全部走内存快照，菜单相关写操作提交后整体重建
+ */
+public interface MenuService {
+
+    /**
+     * 获取当前菜单快照
+     * @return 菜单快照
+     */
+    MenuSnapshot getSnapshot();
+
+    /**
+     * 获取分类列表
+     * @return 分类列表
+     */
+    List<Category> listCategories();
+
+    /**
+     * 根据分类ID获取在售菜品列表
+     * @param categoryId 分类ID
+     * @return 菜品列表
+     */
+    List<DishVO> listDishes(Long categoryId);
+
+    /**
+     * 根据ID获取在售菜品
+     * @param id 菜品ID
+     * @return 菜品信息，不存在或已停售时返回null
+     */
+    DishVO getDish(Long id);
+
+    /**
+     * 重建菜单快照
+     */
+    void refresh();
+}
@@ -3,8 +3,11 @@ package com.shechubbb.smdc.service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.OrderVO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,6 +47,21 @@ public interface OrderService extends IService<Order> {
      */
     void completeOrder(Long id);
 
+    /**
+     * 批量超时取消待付款订单，并释放其占用的桌位
+     * @param ids 订单ID
+     * @return 实际取消的订单ID
+     */
+    List<Long> expireOrders(Collection<Long> ids);
+
+    /**
+     * 按主键顺序回填一批历史订单的桌位名称、桌位编码和用户昵称
+     * @param afterId 从该订单ID之后开始
+     * @param batchSize 每批订单数
+     * @return 本批最后一个订单ID，没有需要回填的订单时返回null
+     */
+    Long backfillSnapshot(Long afterId, int batchSize);
+
     /**
      * 根据ID查询订单详情
      * @param id 订单ID
@@ -51,6 +69,14 @@ public interface OrderService extends IService<Order> {
      */
     OrderVO getOrderDetail(Long id);
 
+    /**
+     * 查询用户在指定桌位的最近一笔待支付订单
+     * @param userId 用户ID
+     * @param tableInfo 桌位信息
+     * @return 订单详情，没有时返回null
+     */
+    OrderVO getPendingOrder(Long userId, TableInfo tableInfo);
+
     /**
      * 用户订单分页查询
      * @param page 页码
@@ -71,6 +97,28 @@ public interface OrderService extends IService<Order> {
      */
     Page<OrderVO> adminPage(int page, int pageSize, String number, Integer status);
 
+    /**
+     * 用户订单游标分页查询，按创建时间倒序
+     * @param userId 用户ID
+     * @param status 订单状态(可选)
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    CursorPage<OrderVO> userScroll(Long userId, Integer status, String cursor, int pageSize, boolean withTotal);
+
+    /**
+     * 管理端订单游标分页查询，按创建时间倒序
+     * @param number 订单号
+     * @param status 订单状态
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    CursorPage<OrderVO> adminScroll(String number, Integer status, String cursor, int pageSize, boolean withTotal);
+
     /**
      * 验证订单归属权，确保用户只能操作自己的订单
      * @param orderId 订单ID
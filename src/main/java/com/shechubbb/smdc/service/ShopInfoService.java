@@ -1,6 +1,7 @@
 package com.shechubbb.smdc.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.shechubbb.smdc.common.util.PreparedJson;
 import com.shechubbb.smdc.entity.ShopInfo;
 
 /**
@@ -13,6 +14,18 @@ public interface ShopInfoService extends IService<ShopInfo> {
      * @return 店铺信息
      */
     ShopInfo getShopInfo();
+
+    /**
+     * 获取缓存的店铺信息，缓存过期或店铺信息更新后重新查询
+     * @return 店铺信息副本
+     */
+    ShopInfo getCachedShopInfo();
+
+    /**
+     * 获取缓存的店铺信息响应体，响应体与其ETag来自同一次加载
+     * @return 预序列化响应体，店铺信息不存在时返回null
+     */
+    PreparedJson getShopInfoJson();
     
     /**
      * 更新店铺信息
@@ -3,7 +3,9 @@ package com.shechubbb.smdc.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.shechubbb.smdc.entity.Specification;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 规格服务接口
@@ -17,6 +19,13 @@ public interface SpecificationService extends IService<Specification> {
      */
     List<Specification> listByDishId(Long dishId);
 
+    /**
+     * 根据菜品ID批量查询规格，一次IN查询后按菜品ID分组
+     * @param dishIds 菜品ID集合
+     * @return 菜品ID → 规格列表，没有规格的菜品不在结果中
+     */
+    Map<Long, List<Specification>> listByDishIds(Collection<Long> dishIds);
+
     /**
      * 添加规格
      * @param specification 规格信息
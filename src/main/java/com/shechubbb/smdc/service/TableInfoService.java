@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.shechubbb.smdc.entity.TableInfo;
 
+import java.util.Collection;
+
 /**
  * 桌台信息服务接口
  */
@@ -48,9 +50,14 @@ public interface TableInfoService extends IService<TableInfo> {
      * 根据桌位名称获取桌位信息
      */
     TableInfo getByName(String name);
-    
+
     /**
      * 更新桌位状态
      */
     void updateStatus(Long id, Integer status);
+
+    /**
+     * 批量更新桌位状态
+     */
+    void updateStatus(Collection<Long> ids, Integer status);
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.shechubbb.smdc.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 文件上传服务接口
+ * 上传文件按内容的SHA-256命名，同一内容只保存一份，文件写入后不再修改
+ */
+public interface UploadService {
+
+    /**
+     * 保存上传的图片
+     * @param file 上传文件
+     * @return 访问路径（相对路径）
+     */
+    String saveImage(MultipartFile file);
+}
@@ -3,6 +3,7 @@ package com.shechubbb.smdc.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
 import com.shechubbb.smdc.common.exception.BusinessException;
 import com.shechubbb.smdc.entity.Category;
 import com.shechubbb.smdc.entity.Dish;
@@ -10,6 +11,7 @@ import com.shechubbb.smdc.mapper.CategoryMapper;
 import com.shechubbb.smdc.mapper.DishMapper;
 import com.shechubbb.smdc.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -24,6 +26,9 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     @Autowired
     private DishMapper dishMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 分页查询
      * @param page 页码
@@ -47,6 +52,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
         category.setCreateTime(LocalDateTime.now());
         category.setUpdateTime(LocalDateTime.now());
         save(category);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.CATEGORY));
     }
 
     /**
@@ -57,6 +63,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     public void update(Category category) {
         category.setUpdateTime(LocalDateTime.now());
         updateById(category);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.CATEGORY));
     }
 
     /**
@@ -71,6 +78,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
             throw new BusinessException("该分类下有菜品，不能删除");
         }
         removeById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.CATEGORY));
     }
 
     /**
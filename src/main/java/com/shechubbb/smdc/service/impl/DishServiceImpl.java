@@ -3,8 +3,11 @@ package com.shechubbb.smdc.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.cache.DishSearchIndex;
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
 import com.shechubbb.smdc.common.exception.BusinessException;
-import com.shechubbb.smdc.config.ImageConfig;
+import com.shechubbb.smdc.common.task.ImageVariantGenerator;
+import com.shechubbb.smdc.common.util.PageCursor;
 import com.shechubbb.smdc.entity.Category;
 import com.shechubbb.smdc.entity.Dish;
 import com.shechubbb.smdc.entity.Specification;
@@ -12,15 +15,20 @@ import com.shechubbb.smdc.mapper.CategoryMapper;
 import com.shechubbb.smdc.mapper.DishMapper;
 import com.shechubbb.smdc.service.DishService;
 import com.shechubbb.smdc.service.SpecificationService;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.DishVO;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +37,9 @@ import java.util.stream.Collectors;
 @Service
 public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements DishService {
 
+    // 名称筛选转为ID条件的最大匹配数
+    private static final int MAX_NAME_MATCHES = 500;
+
     // 将CategoryService替换为CategoryMapper
     @Autowired
     private CategoryMapper categoryMapper;
@@ -37,7 +48,13 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
     private SpecificationService specificationService;
     
     @Autowired
-    private ImageConfig.ImageUrlConverter imageUrlConverter;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DishSearchIndex dishSearchIndex;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
 
     /**
      * 分页查询
@@ -51,9 +68,13 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         // 创建分页对象
         Page<Dish> pageInfo = new Page<>(page, pageSize);
         
-        // 构造查询条件
-        LambdaQueryWrapper<Dish> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.like(StringUtils.isNotBlank(name), Dish::getName, name);
+        // 构造查询条件，名称通过搜索索引匹配（支持全拼和首字母）
+        LambdaQueryWrapper<Dish> queryWrapper = nameCondition(name);
+        if (queryWrapper == null) {
+            Page<DishVO> emptyPage = new Page<>(page, pageSize, 0);
+            emptyPage.setRecords(Collections.emptyList());
+            return emptyPage;
+        }
         queryWrapper.orderByDesc(Dish::getUpdateTime);
         
         // 执行查询
@@ -63,34 +84,43 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         Page<DishVO> dishVOPage = new Page<>();
         BeanUtils.copyProperties(pageInfo, dishVOPage, "records");
         
-        // 处理分类名称
-        List<DishVO> dishVOList = pageInfo.getRecords().stream().map(dish -> {
-            DishVO dishVO = new DishVO();
-            BeanUtils.copyProperties(dish, dishVO);
-            
-            // 设置分类名称，使用CategoryMapper替代CategoryService
-            Category category = categoryMapper.selectById(dish.getCategoryId());
-            if (category != null) {
-                dishVO.setCategoryName(category.getName());
-            }
-            
-            // 设置完整图片URL
-            if (StringUtils.isNotBlank(dishVO.getImage())) {
-                dishVO.setImage(imageUrlConverter.getFullImageUrl(dishVO.getImage()));
-            }
-            
-            // 查询规格信息
-            List<Specification> specifications = specificationService.listByDishId(dish.getId());
-            dishVO.setSpecifications(specifications);
-            
-            return dishVO;
-        }).collect(Collectors.toList());
-        
-        dishVOPage.setRecords(dishVOList);
+        // 批量处理分类名称和规格信息
+        dishVOPage.setRecords(toDishVOList(pageInfo.getRecords(), true));
         
         return dishVOPage;
     }
 
+    /**
+     * 游标分页查询，按（更新时间, ID）倒序，多查一行判断是否还有下一页，不执行COUNT
+     * @param name 菜品名称
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    @Override
+    public CursorPage<DishVO> scroll(String name, String cursor, int pageSize, boolean withTotal) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        pageSize = PageCursor.limitPageSize(pageSize);
+        LambdaQueryWrapper<Dish> queryWrapper = nameCondition(name);
+        if (queryWrapper == null) {
+            CursorPage<DishVO> emptyPage = CursorPage.of(Collections.<Dish>emptyList(), pageSize, null, null);
+            emptyPage.setTotal(withTotal ? 0L : null);
+            return emptyPage;
+        }
+        // 总数只按筛选条件统计，须在追加游标条件之前执行
+        Long total = withTotal ? count(queryWrapper) : null;
+
+        PageCursor.apply(queryWrapper, Dish::getUpdateTime, Dish::getId, pageCursor);
+        List<Dish> dishes = page(new Page<Dish>(1, pageSize + 1, false), queryWrapper).getRecords();
+
+        CursorPage<DishVO> cursorPage = CursorPage.of(dishes, pageSize,
+                dish -> PageCursor.encode(dish.getUpdateTime(), dish.getId()),
+                list -> toDishVOList(list, true));
+        cursorPage.setTotal(total);
+        return cursorPage;
+    }
+
     /**
      * 添加菜品
      * @param dishVO 菜品信息
@@ -108,6 +138,8 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         if (specifications != null && !specifications.isEmpty()) {
             specificationService.saveBatch(specifications, dishVO.getId());
         }
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.DISH, dishVO.getId()));
     }
 
     /**
@@ -126,6 +158,8 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         if (specifications != null) {
             specificationService.saveBatch(specifications, dishVO.getId());
         }
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.DISH, dishVO.getId()));
     }
 
     /**
@@ -140,6 +174,8 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         
         // 删除规格
         specificationService.deleteByDishId(id);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.DISH, id));
     }
 
     /**
@@ -157,6 +193,8 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         dish.setStatus(status);
         dish.setUpdateTime(LocalDateTime.now());
         updateById(dish);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.DISH, id));
     }
 
     /**
@@ -174,22 +212,8 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         
         List<Dish> dishList = list(queryWrapper);
         
-        // 转换为DishVO并查询规格
-        return dishList.stream().map(dish -> {
-            DishVO dishVO = new DishVO();
-            BeanUtils.copyProperties(dish, dishVO);
-            
-            // 设置完整图片URL
-            if (StringUtils.isNotBlank(dishVO.getImage())) {
-                dishVO.setImage(imageUrlConverter.getFullImageUrl(dishVO.getImage()));
-            }
-            
-            // 查询规格信息
-            List<Specification> specifications = specificationService.listByDishId(dish.getId());
-            dishVO.setSpecifications(specifications);
-            
-            return dishVO;
-        }).collect(Collectors.toList());
+        // 转换为DishVO并批量查询规格
+        return toDishVOList(dishList, false);
     }
 
     /**
@@ -208,11 +232,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         // 转换为DishVO
         DishVO dishVO = new DishVO();
         BeanUtils.copyProperties(dish, dishVO);
-        
-        // 设置完整图片URL
-        if (StringUtils.isNotBlank(dishVO.getImage())) {
-            dishVO.setImage(imageUrlConverter.getFullImageUrl(dishVO.getImage()));
-        }
+        dishVO.setImageVariants(imageVariantGenerator.getVariants(dish.getImage()));
         
         // 查询规格信息
         List<Specification> specifications = specificationService.listByDishId(id);
@@ -226,4 +246,84 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         
         return dishVO;
     }
-}
\ No newline at end of file
+
+    /**
+     * 构造名称筛选条件，名称通过搜索索引匹配
+     * 匹配数超过上限时，含汉字的关键字按名称模糊查询，拼音关键字只取前若干个匹配
+     * @param name 菜品名称
+     * @return 查询条件，没有匹配的菜品时返回null
+     */
+    private LambdaQueryWrapper<Dish> nameCondition(String name) {
+        LambdaQueryWrapper<Dish> queryWrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.isNotBlank(name)) {
+            // 多取一个判断是否超过上限
+            List<Long> ids = dishSearchIndex.search(name, MAX_NAME_MATCHES + 1);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            if (ids.size() <= MAX_NAME_MATCHES) {
+                queryWrapper.in(Dish::getId, ids);
+            } else if (containsChinese(name)) {
+                // 匹配过多（如单字查询）时回退到名称模糊查询，避免过长的IN列表
+                queryWrapper.like(Dish::getName, name.trim());
+            } else {
+                // 拼音和首字母无法用名称模糊查询匹配，截断到上限
+                queryWrapper.in(Dish::getId, ids.subList(0, MAX_NAME_MATCHES));
+            }
+        }
+        return queryWrapper;
+    }
+
+    /**
+     * 判断关键字是否包含汉字
+     * @param keyword 关键字
+     * @return 包含汉字时返回true
+     */
+    private static boolean containsChinese(String keyword) {
+        return keyword.codePoints().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN);
+    }
+
+    /**
+     * 批量转换为DishVO，规格固定一次IN查询，分类名称固定一次IN查询
+     * 查询次数与菜品数量无关
+     * @param dishList 菜品列表
+     * @param withCategoryName 是否设置分类名称
+     * @return 菜品视图列表
+     */
+    private List<DishVO> toDishVOList(List<Dish> dishList, boolean withCategoryName) {
+        if (dishList == null || dishList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        // 批量查询规格信息
+        Map<Long, List<Specification>> specMap = specificationService.listByDishIds(
+                dishList.stream().map(Dish::getId).collect(Collectors.toList()));
+        
+        // 批量查询分类名称
+        Map<Long, String> categoryNameMap = Collections.emptyMap();
+        if (withCategoryName) {
+            Set<Long> categoryIds = dishList.stream().map(Dish::getCategoryId).collect(Collectors.toSet());
+            categoryNameMap = categoryMapper.selectBatchIds(categoryIds).stream()
+                    .collect(Collectors.toMap(Category::getId, Category::getName, (a, b) -> a));
+        }
+        
+        Map<Long, String> categoryNames = categoryNameMap;
+        return dishList.stream().map(dish -> {
+            DishVO dishVO = new DishVO();
+            BeanUtils.copyProperties(dish, dishVO);
+            
+            // 设置分类名称
+            if (withCategoryName) {
+                dishVO.setCategoryName(categoryNames.get(dish.getCategoryId()));
+            }
+            
+            // 设置规格信息
+            dishVO.setSpecifications(specMap.getOrDefault(dish.getId(), Collections.emptyList()));
+            
+            // 设置图片多尺寸版本
+            dishVO.setImageVariants(imageVariantGenerator.getVariants(dish.getImage()));
+            
+            return dishVO;
+        }).collect(Collectors.toList());
+    }
+}
@@ -3,11 +3,13 @@ package com.shechubbb.smdc.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.cache.PrincipalCache;
 import com.shechubbb.smdc.common.exception.BusinessException;
 import com.shechubbb.smdc.entity.Employee;
 import com.shechubbb.smdc.mapper.EmployeeMapper;
 import com.shechubbb.smdc.service.EmployeeService;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
@@ -19,6 +21,9 @@ import java.time.LocalDateTime;
 @Service
 public class EmployeeServiceImpl extends ServiceImpl<EmployeeMapper, Employee> implements EmployeeService {
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     /**
      * 员工登录
      * @param username 用户名
@@ -44,6 +49,8 @@ public class EmployeeServiceImpl extends ServiceImpl<EmployeeMapper, Employee> i
             throw new BusinessException("密码错误");
         }
         
+        // 登录时刷新身份缓存
+        principalCache.invalidateEmployee(employee.getId());
         return employee;
     }
 
@@ -97,6 +104,7 @@ public class EmployeeServiceImpl extends ServiceImpl<EmployeeMapper, Employee> i
         // 密码不允许在此处修改
         employee.setPassword(null);
         updateById(employee);
+        principalCache.invalidateEmployee(employee.getId());
     }
 
     /**
@@ -116,6 +124,7 @@ public class EmployeeServiceImpl extends ServiceImpl<EmployeeMapper, Employee> i
         }
         
         removeById(id);
+        principalCache.invalidateEmployee(id);
     }
 
     /**
@@ -141,6 +150,7 @@ public class EmployeeServiceImpl extends ServiceImpl<EmployeeMapper, Employee> i
         employee.setPassword(DigestUtils.md5DigestAsHex(newPassword.getBytes()));
         employee.setUpdateTime(LocalDateTime.now());
         updateById(employee);
+        principalCache.invalidateEmployee(id);
     }
 
     /**
@@ -0,0 +1,225 @@
+package com.shechubbb.smdc.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.cache.CatalogVersion;
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.common.task.ImageVariantGenerator;
+import com.shechubbb.smdc.entity.Category;
+import com.shechubbb.smdc.entity.Dish;
+import com.shechubbb.smdc.entity.Specification;
+import com.shechubbb.smdc.service.CategoryService;
+import com.shechubbb.smdc.service.DishService;
+import com.shechubbb.smdc.service.MenuService;
+import com.shechubbb.smdc.service.SpecificationService;
+import com.shechubbb.smdc.vo.DishVO;
+import com.shechubbb.smdc.vo.MenuSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 菜单快照服务实现类
+ * 快照按需构建，菜单写操作的事务提交后整体重建并原子替换；
+ * 超过最大存活时间的快照由一个请求线程后台重建，其余请求继续读取旧快照（兼顾多实例部署）
+ */
+@Slf4j
+@Service
+public class MenuServiceImpl implements MenuService {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private SpecificationService specificationService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    // 与Spring MVC共用的ObjectMapper，预序列化结果与接口直接返回对象时一致
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 快照最大存活时间，单位秒，多实例部署时用于同步其他实例的菜单变更
+    @Value("${smdc.menu.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile MenuSnapshot snapshot;
+
+    /**
+     * 获取当前菜单快照
+     * @return 菜单快照
+     */
+    @Override
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot current = snapshot;
+        if (current == null) {
+            // 尚无快照，所有请求等待同一次构建
+            buildLock.lock();
+            try {
+                current = snapshot;
+                if (current == null) {
+                    current = build();
+                    snapshot = current;
+                }
+            } finally {
+                buildLock.unlock();
+            }
+        } else if (isExpired(current) && buildLock.tryLock()) {
+            // 快照过期，仅由抢到锁的请求重建，其余请求继续使用旧快照
+            try {
+                if (snapshot == current) {
+                    current = build();
+                    snapshot = current;
+                }
+            } catch (Exception e) {
+                log.warn("菜单快照重建失败，继续使用旧快照，version={}", current.getVersion(), e);
+            } finally {
+                buildLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取分类列表
+     * @return 分类列表
+     */
+    @Override
+    public List<Category> listCategories() {
+        return getSnapshot().getCategories();
+    }
+
+    /**
+     * 根据分类ID获取在售菜品列表
+     * @param categoryId 分类ID
+     * @return 菜品列表
+     */
+    @Override
+    public List<DishVO> listDishes(Long categoryId) {
+        return getSnapshot().getDishes(categoryId);
+    }
+
+    /**
+     * 根据ID获取在售菜品
+     * @param id 菜品ID
+     * @return 菜品信息，不存在或已停售时返回null
+     */
+    @Override
+    public DishVO getDish(Long id) {
+        return getSnapshot().getDishById().get(id);
+    }
+
+    /**
+     * 重建菜单快照
+     */
+    @Override
+    public void refresh() {
+        buildLock.lock();
+        try {
+            snapshot = build();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * 菜单变更事务提交后重建快照
+     * 同一事务内的多次变更只重建一次：快照版本号大于本次提交序号时，快照在提交后才开始构建，直接跳过
+     * @param event 菜单变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // 店铺信息不在菜单快照中
+        if (event.getTarget() == CatalogChangedEvent.Target.SHOP) {
+            return;
+        }
+        MenuSnapshot current = snapshot;
+        if (current != null && event.getCommitVersion() > 0 && current.getVersion() > event.getCommitVersion()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            // 重建失败时丢弃旧快照，下次读取重新构建
+            snapshot = null;
+            log.error("菜单快照重建失败，target={}", event.getTarget(), e);
+        }
+    }
+
+    /**
+     * 判断快照是否超过最大存活时间
+     */
+    private boolean isExpired(MenuSnapshot current) {
+        return maxAgeSeconds > 0
+                && System.nanoTime() - current.getBuildNanos() > TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    /**
+     * 从数据库构建菜单快照，固定三次查询：分类、在售菜品、规格
+     * @return 菜单快照
+     */
+    private MenuSnapshot build() {
+        long buildNanos = System.nanoTime();
+        // 先取版本号再查询，保证同一版本号对应的数据不早于该版本
+        long version = catalogVersion.next();
+
+        // 查询分类
+        LambdaQueryWrapper<Category> categoryWrapper = new LambdaQueryWrapper<>();
+        categoryWrapper.orderByAsc(Category::getSort);
+        List<Category> categories = categoryService.list(categoryWrapper);
+
+        // 查询在售菜品
+        LambdaQueryWrapper<Dish> dishWrapper = new LambdaQueryWrapper<>();
+        dishWrapper.eq(Dish::getStatus, 1);
+        dishWrapper.orderByAsc(Dish::getSort);
+        List<Dish> dishes = dishService.list(dishWrapper);
+
+        // 一次查询全部规格，按菜品分组
+        Map<Long, List<Specification>> specMap = specificationService.listByDishIds(
+                dishes.stream().map(Dish::getId).collect(Collectors.toList()));
+
+        // 组装菜品，快照中保存图片相对路径，预序列化时输出完整URL
+        Map<Long, List<DishVO>> dishesByCategory = new LinkedHashMap<>();
+        Map<Long, DishVO> dishById = new HashMap<>();
+        for (Dish dish : dishes) {
+            DishVO dishVO = new DishVO();
+            BeanUtils.copyProperties(dish, dishVO);
+            List<Specification> specifications = specMap.get(dish.getId());
+            dishVO.setSpecifications(specifications != null
+                    ? Collections.unmodifiableList(specifications) : Collections.<Specification>emptyList());
+            dishVO.setImageVariants(imageVariantGenerator.getVariants(dish.getImage()));
+
+            dishesByCategory.computeIfAbsent(dish.getCategoryId(), key -> new ArrayList<>()).add(dishVO);
+            dishById.put(dish.getId(), dishVO);
+        }
+        dishesByCategory.replaceAll((categoryId, list) -> Collections.unmodifiableList(list));
+
+        MenuSnapshot menuSnapshot = new MenuSnapshot(version, buildNanos,
+                new ArrayList<>(categories), dishesByCategory, dishById, objectMapper);
+        log.info("菜单快照已构建，version={}，分类数={}，在售菜品数={}",
+                menuSnapshot.getVersion(), categories.size(), dishes.size());
+        return menuSnapshot;
+    }
+}
@@ -1,13 +1,19 @@
 package com.shechubbb.smdc.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.cache.PrincipalCache;
+import com.shechubbb.smdc.common.cache.TableResolver;
 import com.shechubbb.smdc.common.constant.OrderStatusConstant;
+import com.shechubbb.smdc.common.constant.OrderTransition;
 import com.shechubbb.smdc.common.constant.PayMethodConstant;
 import com.shechubbb.smdc.common.constant.PayStatusConstant;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
 import com.shechubbb.smdc.common.exception.BusinessException;
-import com.shechubbb.smdc.config.ImageConfig.ImageUrlConverter;
+import com.shechubbb.smdc.common.util.OrderNumberGenerator;
+import com.shechubbb.smdc.common.util.PageCursor;
 import com.shechubbb.smdc.entity.Dish;
 import com.shechubbb.smdc.entity.Order;
 import com.shechubbb.smdc.entity.OrderDetail;
@@ -19,20 +25,28 @@ import com.shechubbb.smdc.mapper.OrderMapper;
 import com.shechubbb.smdc.service.OrderDetailService;
 import com.shechubbb.smdc.service.OrderService;
 import com.shechubbb.smdc.service.SpecificationService;
-import com.shechubbb.smdc.service.TableInfoService;
 import com.shechubbb.smdc.service.UserService;
+import com.shechubbb.smdc.vo.CursorPage;
 import com.shechubbb.smdc.vo.OrderDetailVO;
 import com.shechubbb.smdc.vo.OrderVO;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +56,9 @@ import java.util.stream.Collectors;
 @Service
 public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements OrderService {
 
+    // 桌位无法解析时名称的前缀
+    private static final String TABLE_NAME_PREFIX = "桌号";
+
     @Autowired
     private OrderDetailService orderDetailService;
 
@@ -49,7 +66,10 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     private UserService userService;
 
     @Autowired
-    private TableInfoService tableInfoService;
+    private TableResolver tableResolver;
+
+    @Autowired
+    private PrincipalCache principalCache;
     
     @Autowired
     private DishMapper dishMapper;
@@ -57,8 +77,11 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     @Autowired
     private SpecificationService specificationService;
     
-    @Autowired(required = false)
-    private ImageUrlConverter imageUrlConverter;
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建订单
@@ -72,41 +95,27 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         if (orderVO.getUserId() == null) {
             throw new BusinessException("用户ID不能为空");
         }
-        
-        // 检查桌位(如果提供了桌位ID)
-        if (orderVO.getTableId() != null && !orderVO.getTableId().isEmpty()) {
-            // 尝试根据ID或编码获取桌位信息
-            TableInfo tableInfo = null;
-            try {
-                // 尝试按数字ID查询
-                Long tableIdNum = Long.parseLong(orderVO.getTableId());
-                tableInfo = tableInfoService.getById(tableIdNum);
-            } catch (NumberFormatException e) {
-                // 如果不是数字，则可能是桌位编码
-                tableInfo = tableInfoService.getByCode(orderVO.getTableId());
-                
-                // 如果还没找到，尝试按名称查询
-                if (tableInfo == null) {
-                    tableInfo = tableInfoService.getByName(orderVO.getTableId());
-                }
-            }
-            
-            if (tableInfo != null) {
-                // 更新桌位状态
-                tableInfo.setStatus(1); // 使用中
-                tableInfo.setUpdateTime(LocalDateTime.now());
-                tableInfoService.updateById(tableInfo);
-            }
+        if (orderVO.getOrderDetails() == null || orderVO.getOrderDetails().isEmpty()) {
+            throw new BusinessException("订单明细不能为空");
         }
         
+        // 在任何写操作之前批量加载并校验菜品和规格，避免持有行锁期间逐条查询
+        List<OrderDetail> orderDetails = buildOrderDetails(orderVO.getOrderDetails());
+        
+        // 检查桌位(如果提供了桌位ID、编码或名称)，桌位状态由占用引擎根据下单事件更新
+        TableInfo tableInfo = tableResolver.resolve(orderVO.getTableId());
+        
         // 设置订单基本信息
         Order order = new Order();
         BeanUtils.copyProperties(orderVO, order);
         
         // 生成订单号
-        String number = generateOrderNumber();
+        String number = orderNumberGenerator.nextNumber();
         order.setNumber(number);
         
+        // 缓存桌位和用户信息，订单列表和详情不再查询用户和桌位
+        snapshot(order, tableInfo, orderVO.getTableId(), findUser(orderVO.getUserId()));
+        
         // 设置订单状态
         order.setStatus(OrderStatusConstant.PENDING_PAYMENT);
         order.setPayStatus(PayStatusConstant.UNPAID);
@@ -118,32 +127,99 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         // 保存订单
         save(order);
         
-        // 保存订单明细，并同时缓存菜品信息
-        List<OrderDetail> orderDetails = orderVO.getOrderDetails().stream().map(item -> {
+        // 保存订单明细
+        orderDetailService.saveBatch(orderDetails, order.getId());
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), OrderChangedEvent.Type.CREATE, order.getStatus(),
+                tableInfo != null ? tableInfo.getId() : null));
+        
+        return order.getId();
+    }
+
+    /**
+     * 缓存订单的桌位名称、桌位编码和用户昵称，覆盖客户端提交的同名字段
+     * 桌位无法解析时名称为"桌号"加订单的桌位标识、编码为桌位标识，用户没有昵称时为空字符串
+     * @param order 订单
+     * @param tableInfo 桌位信息，可为null
+     * @param tableId 订单的桌位标识
+     * @param user 下单用户，可为null
+     */
+    static void snapshot(Order order, TableInfo tableInfo, String tableId, User user) {
+        if (tableInfo != null) {
+            order.setTableName(tableInfo.getName());
+            order.setTableCode(tableInfo.getCode());
+        } else if (StringUtils.isNotEmpty(tableId)) {
+            // 与历史订单的显示格式保持一致
+            order.setTableName(TABLE_NAME_PREFIX + tableId);
+            order.setTableCode(tableId);
+        } else {
+            order.setTableName(null);
+            order.setTableCode(null);
+        }
+        order.setUserName(user != null ? StringUtils.defaultString(user.getNickName()) : null);
+    }
+
+    /**
+     * 查询下单用户，优先使用登录身份缓存
+     */
+    private User findUser(Long userId) {
+        User user = principalCache.getUser(userId);
+        return user != null ? user : userService.getById(userId);
+    }
+
+    /**
+     * 构建订单明细，并缓存菜品名称、图片和规格名称
+     * 菜品和规格各一次批量查询，停售或不存在的菜品直接拒绝
+     * @param items 提交的订单明细
+     * @return 待保存的订单明细
+     */
+    private List<OrderDetail> buildOrderDetails(List<OrderDetailVO> items) {
+        Set<Long> dishIds = new HashSet<>();
+        Set<Long> specificationIds = new HashSet<>();
+        for (OrderDetailVO item : items) {
+            if (item.getDishId() == null) {
+                throw new BusinessException("菜品不存在");
+            }
+            dishIds.add(item.getDishId());
+            if (item.getSpecificationId() != null) {
+                specificationIds.add(item.getSpecificationId());
+            }
+        }
+        
+        // 批量查询菜品和规格
+        Map<Long, Dish> dishMap = dishMapper.selectBatchIds(dishIds).stream()
+                .collect(Collectors.toMap(Dish::getId, Function.identity(), (a, b) -> a));
+        Map<Long, Specification> specificationMap = specificationIds.isEmpty() ? Collections.emptyMap()
+                : specificationService.listByIds(specificationIds).stream()
+                        .collect(Collectors.toMap(Specification::getId, Function.identity(), (a, b) -> a));
+        
+        return items.stream().map(item -> {
+            Dish dish = dishMap.get(item.getDishId());
+            if (dish == null) {
+                throw new BusinessException("菜品不存在");
+            }
+            if (dish.getStatus() == null || dish.getStatus() == 0) {
+                throw new BusinessException("菜品【" + dish.getName() + "】已停售");
+            }
+            
             OrderDetail orderDetail = new OrderDetail();
             BeanUtils.copyProperties(item, orderDetail);
             
-            // 查询并缓存菜品信息
-            Dish dish = dishMapper.selectById(item.getDishId());
-            if (dish != null) {
-                orderDetail.setDishName(dish.getName());
-                orderDetail.setDishImage(dish.getImage());
-            }
+            // 缓存菜品信息
+            orderDetail.setDishName(dish.getName());
+            orderDetail.setDishImage(dish.getImage());
             
-            // 查询并缓存规格信息
+            // 缓存规格信息
             if (item.getSpecificationId() != null) {
-                Specification specification = specificationService.getById(item.getSpecificationId());
-                if (specification != null) {
-                    orderDetail.setSpecificationName(specification.getName());
+                Specification specification = specificationMap.get(item.getSpecificationId());
+                if (specification == null || !dish.getId().equals(specification.getDishId())) {
+                    throw new BusinessException("菜品【" + dish.getName() + "】的规格不存在");
                 }
+                orderDetail.setSpecificationName(specification.getName());
             }
             
             return orderDetail;
         }).collect(Collectors.toList());
-        
-        orderDetailService.saveBatch(orderDetails, order.getId());
-        
-        return order.getId();
     }
 
     /**
@@ -154,24 +230,10 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     @Override
     @Transactional
     public void payOrder(Long id, Integer payMethod) {
-        // 查询订单
-        Order order = getById(id);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
-        }
-        
-        // 检查订单状态
-        if (order.getStatus() != OrderStatusConstant.PENDING_PAYMENT) {
-            throw new BusinessException("订单状态异常，不能支付");
-        }
-        
-        // 更新订单状态
-        order.setStatus(OrderStatusConstant.PAID);
-        order.setPayMethod(payMethod);
-        order.setPayStatus(PayStatusConstant.PAID);
-        order.setUpdateTime(LocalDateTime.now());
-        
-        updateById(order);
+        // 条件更新：仅待付款订单可支付，并发重复支付只有一个能成功
+        transit(id, OrderTransition.PAY, wrapper -> wrapper
+                .set(Order::getPayMethod, payMethod)
+                .set(Order::getPayStatus, PayStatusConstant.PAID));
     }
 
     /**
@@ -181,32 +243,8 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     @Override
     @Transactional
     public void cancelOrder(Long id) {
-        // 查询订单
-        Order order = getById(id);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
-        }
-        
-        // 检查订单状态
-        if (order.getStatus() == OrderStatusConstant.COMPLETED || order.getStatus() == OrderStatusConstant.CANCELLED) {
-            throw new BusinessException("订单已完成或已取消，不能取消");
-        }
-        
-        // 更新订单状态
-        order.setStatus(OrderStatusConstant.CANCELLED);
-        order.setUpdateTime(LocalDateTime.now());
-        
-        updateById(order);
-        
-        // 更新桌位状态(如果有桌位)
-        if (order.getTableId() != null) {
-            TableInfo tableInfo = tableInfoService.getById(order.getTableId());
-            if (tableInfo != null) {
-                tableInfo.setStatus(0); // 空闲
-                tableInfo.setUpdateTime(LocalDateTime.now());
-                tableInfoService.updateById(tableInfo);
-            }
-        }
+        // 桌位由占用引擎根据取消事件释放
+        transit(id, OrderTransition.CANCEL, null);
     }
 
     /**
@@ -215,21 +253,8 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
      */
     @Override
     public void acceptOrder(Long id) {
-        // 查询订单
-        Order order = getById(id);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
-        }
-        
-        // 检查订单状态
-        if (order.getStatus() != OrderStatusConstant.PAID) {
-            throw new BusinessException("订单状态异常，不能接单");
-        }
-        
-        // 更新订单时间
-        order.setUpdateTime(LocalDateTime.now());
-        
-        updateById(order);
+        // 仅已支付订单可接单，只刷新更新时间
+        transit(id, OrderTransition.ACCEPT, null);
     }
 
     /**
@@ -239,43 +264,122 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
     @Override
     @Transactional
     public void completeOrder(Long id) {
-        // 查询订单
-        Order order = getById(id);
-        if (order == null) {
-            throw new BusinessException("订单不存在");
+        // 桌位由占用引擎根据完成事件释放
+        transit(id, OrderTransition.COMPLETE, null);
+    }
+
+    /**
+     * 执行订单状态流转
+     * 一条 UPDATE ... WHERE id = ? AND status IN (...) 完成检查和更新，不需要先查询也不需要行锁；
+     * 影响行数为0时才查询一次，用于区分订单不存在和状态冲突
+     * @param id 订单ID
+     * @param transition 状态流转
+     * @param extraSets 需要同时更新的其他字段，可为null
+     */
+    private void transit(Long id, OrderTransition transition, Consumer<LambdaUpdateWrapper<Order>> extraSets) {
+        if (tryTransit(id, transition, extraSets)) {
+            return;
         }
         
-        // 检查订单状态
-        if (order.getStatus() != OrderStatusConstant.PAID) {
-            throw new BusinessException("订单状态异常，不能完成");
+        // 更新失败，区分订单不存在和状态冲突
+        if (getById(id) == null) {
+            throw new BusinessException("订单不存在");
+        }
+        log.warn("订单状态流转冲突，id={}，transition={}", id, transition);
+        throw new BusinessException(transition.getConflictMessage());
+    }
+
+    /**
+     * 尝试执行订单状态流转，成功时发布订单变更事件
+     * @param id 订单ID
+     * @param transition 状态流转
+     * @param extraSets 需要同时更新的其他字段，可为null
+     * @return 是否流转成功，订单不存在或状态不允许时返回false
+     */
+    private boolean tryTransit(Long id, OrderTransition transition, Consumer<LambdaUpdateWrapper<Order>> extraSets) {
+        LambdaUpdateWrapper<Order> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.set(Order::getStatus, transition.getTarget());
+        wrapper.set(Order::getUpdateTime, LocalDateTime.now());
+        if (extraSets != null) {
+            extraSets.accept(wrapper);
         }
+        wrapper.eq(Order::getId, id);
+        wrapper.in(Order::getStatus, transition.getSources());
         
-        // 更新订单状态
-        order.setStatus(OrderStatusConstant.COMPLETED);
-        order.setUpdateTime(LocalDateTime.now());
+        if (baseMapper.update(null, wrapper) > 0) {
+            eventPublisher.publishEvent(new OrderChangedEvent(id, OrderChangedEvent.Type.of(transition), transition.getTarget()));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 批量超时取消待付款订单
+     * 每个订单一条条件更新，多个实例同时处理同一订单时只有一个能成功；桌位由占用引擎根据超时取消事件释放
+     * @param ids 订单ID
+     * @return 实际取消的订单ID
+     */
+    @Override
+    @Transactional
+    public List<Long> expireOrders(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 只加载仍待付款的订单，已支付或已取消的订单不再更新
+        List<Order> orders = list(new LambdaQueryWrapper<Order>()
+                .select(Order::getId)
+                .in(Order::getId, ids)
+                .eq(Order::getStatus, OrderStatusConstant.PENDING_PAYMENT));
+        
+        List<Long> expiredIds = new ArrayList<>();
+        for (Order order : orders) {
+            if (tryTransit(order.getId(), OrderTransition.EXPIRE, null)) {
+                expiredIds.add(order.getId());
+            }
+        }
+        return expiredIds;
+    }
+
+    /**
+     * 按主键顺序回填一批历史订单的桌位名称、桌位编码和用户昵称
+     * 每批一次查询订单、一次批量查询用户、一次批量更新，桌位从内存索引解析
+     * @param afterId 从该订单ID之后开始
+     * @param batchSize 每批订单数
+     * @return 本批最后一个订单ID，没有需要回填的订单时返回null
+     */
+    @Override
+    @Transactional
+    public Long backfillSnapshot(Long afterId, int batchSize) {
+        List<Order> orders = list(new LambdaQueryWrapper<Order>()
+                .select(Order::getId, Order::getUserId, Order::getTableId)
+                .gt(Order::getId, afterId)
+                .and(wrapper -> wrapper.isNull(Order::getUserName)
+                        .or(table -> table.isNull(Order::getTableName)
+                                .isNotNull(Order::getTableId)
+                                .ne(Order::getTableId, "")))
+                .orderByAsc(Order::getId)
+                .last("limit " + batchSize));
+        if (orders.isEmpty()) {
+            return null;
+        }
         
-        updateById(order);
-        
-        // 更新桌位状态（如果可以解析为数字ID）
-        if (order.getTableId() != null && !order.getTableId().isEmpty()) {
-            try {
-                Long tableIdNum = Long.parseLong(order.getTableId());
-                TableInfo tableInfo = tableInfoService.getById(tableIdNum);
-                if (tableInfo != null) {
-                    tableInfo.setStatus(0); // 空闲
-                    tableInfo.setUpdateTime(LocalDateTime.now());
-                    tableInfoService.updateById(tableInfo);
-                }
-            } catch (NumberFormatException e) {
-                // 如果不是数字ID，可能是桌位编码，尝试根据编码查找
-                TableInfo tableInfo = tableInfoService.getByCode(order.getTableId());
-                if (tableInfo != null) {
-                    tableInfo.setStatus(0); // 空闲
-                    tableInfo.setUpdateTime(LocalDateTime.now());
-                    tableInfoService.updateById(tableInfo);
-                }
+        Set<Long> userIds = orders.stream().map(Order::getUserId).collect(Collectors.toSet());
+        Map<Long, User> userMap = userService.listByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+        
+        List<Order> updates = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Order update = new Order();
+            update.setId(order.getId());
+            snapshot(update, tableResolver.resolve(order.getTableId()), order.getTableId(), userMap.get(order.getUserId()));
+            if (update.getUserName() == null) {
+                // 用户已删除，标记为已回填
+                update.setUserName("");
             }
+            updates.add(update);
         }
+        updateBatchById(updates);
+        return orders.get(orders.size() - 1).getId();
     }
 
     /**
@@ -295,53 +399,63 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         OrderVO orderVO = new OrderVO();
         BeanUtils.copyProperties(order, orderVO);
         
-        // 查询用户信息
-        User user = userService.getById(order.getUserId());
-        if (user != null) {
-            orderVO.setUserName(user.getNickName());
-        }
-        
-        // 查询桌位信息
-        if (order.getTableId() != null && !order.getTableId().isEmpty()) {
-            try {
-                // 尝试解析为数字ID
-                Long tableIdNum = Long.parseLong(order.getTableId());
-                TableInfo tableInfo = tableInfoService.getById(tableIdNum);
-                if (tableInfo != null) {
-                    orderVO.setTableName(tableInfo.getName());
-                    orderVO.setTableCode(tableInfo.getCode());
-                }
-            } catch (NumberFormatException e) {
-                // 如果不是数字ID，可能是桌位编码，尝试根据编码查找
-                TableInfo tableInfo = tableInfoService.getByCode(order.getTableId());
-                if (tableInfo != null) {
-                    orderVO.setTableName(tableInfo.getName());
-                    orderVO.setTableCode(tableInfo.getCode());
-                } else {
-                    // 如果还没找到，尝试按名称查询
-                    tableInfo = tableInfoService.getByName(order.getTableId());
-                    if (tableInfo != null) {
-                        orderVO.setTableName(tableInfo.getName());
-                        orderVO.setTableCode(tableInfo.getCode());
-                    } else {
-                        // 如果都找不到，直接使用tableId作为名称和编码
-                        orderVO.setTableName("桌号" + order.getTableId());
-                        orderVO.setTableCode(order.getTableId());
-                    }
-                }
+        // 用户和桌位信息已在下单时缓存，尚未回填的历史订单才查询
+        if (order.getUserName() == null) {
+            User user = userService.getById(order.getUserId());
+            if (user != null) {
+                orderVO.setUserName(user.getNickName());
             }
         }
+        if (order.getTableName() == null && StringUtils.isNotEmpty(order.getTableId())) {
+            resolveTable(orderVO, order.getTableId());
+        }
         
-        // 查询订单明细
+        // 查询订单明细，图片地址在序列化时转换为完整URL
         List<OrderDetailVO> orderDetailVOs = orderDetailService.getByOrderId(id);
+        orderVO.setOrderDetails(orderDetailVOs);
         
-        // 处理订单明细中的图片URL
-        if (imageUrlConverter != null && orderDetailVOs != null && !orderDetailVOs.isEmpty()) {
-            imageUrlConverter.processOrderDetailImages(orderDetailVOs);
+        return orderVO;
+    }
+
+    /**
+     * 查询用户在指定桌位的最近一笔待支付订单
+     * 订单的桌位标识可能是ID、编码或名称，一次查询全部匹配
+     * @param userId 用户ID
+     * @param tableInfo 桌位信息
+     * @return 订单详情，没有时返回null
+     */
+    @Override
+    public OrderVO getPendingOrder(Long userId, TableInfo tableInfo) {
+        if (userId == null || tableInfo == null) {
+            return null;
+        }
+        Set<String> tableRefs = new HashSet<>();
+        tableRefs.add(String.valueOf(tableInfo.getId()));
+        if (StringUtils.isNotBlank(tableInfo.getCode())) {
+            tableRefs.add(tableInfo.getCode());
+        }
+        if (StringUtils.isNotBlank(tableInfo.getName())) {
+            tableRefs.add(tableInfo.getName());
         }
         
-        orderVO.setOrderDetails(orderDetailVOs);
+        LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Order::getUserId, userId);
+        queryWrapper.eq(Order::getStatus, OrderStatusConstant.PENDING_PAYMENT);
+        queryWrapper.in(Order::getTableId, tableRefs);
+        queryWrapper.orderByDesc(Order::getCreateTime);
+        queryWrapper.last("limit 1");
+        Order order = getOne(queryWrapper);
+        if (order == null) {
+            return null;
+        }
+        
+        OrderVO orderVO = new OrderVO();
+        BeanUtils.copyProperties(order, orderVO);
+        orderVO.setTableName(tableInfo.getName());
+        orderVO.setTableCode(tableInfo.getCode());
         
+        List<OrderDetailVO> orderDetailVOs = orderDetailService.getByOrderId(order.getId());
+        orderVO.setOrderDetails(orderDetailVOs);
         return orderVO;
     }
 
@@ -398,6 +512,63 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         return handleOrderVOPage(pageInfo);
     }
     
+    /**
+     * 用户订单游标分页查询
+     * @param userId 用户ID
+     * @param status 订单状态(可选)
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    @Override
+    public CursorPage<OrderVO> userScroll(Long userId, Integer status, String cursor, int pageSize, boolean withTotal) {
+        LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Order::getUserId, userId);
+        queryWrapper.eq(status != null, Order::getStatus, status);
+        return scroll(queryWrapper, cursor, pageSize, withTotal);
+    }
+
+    /**
+     * 管理端订单游标分页查询
+     * @param number 订单号
+     * @param status 订单状态
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    @Override
+    public CursorPage<OrderVO> adminScroll(String number, Integer status, String cursor, int pageSize, boolean withTotal) {
+        LambdaQueryWrapper<Order> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.like(StringUtils.isNotBlank(number), Order::getNumber, number);
+        queryWrapper.eq(status != null, Order::getStatus, status);
+        return scroll(queryWrapper, cursor, pageSize, withTotal);
+    }
+
+    /**
+     * 按（创建时间, ID）倒序游标分页，多查一行判断是否还有下一页，不执行COUNT
+     * @param queryWrapper 筛选条件
+     * @param cursor 游标
+     * @param pageSize 每页记录数
+     * @param withTotal 是否统计总数
+     * @return 游标分页数据
+     */
+    private CursorPage<OrderVO> scroll(LambdaQueryWrapper<Order> queryWrapper, String cursor, int pageSize, boolean withTotal) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        pageSize = PageCursor.limitPageSize(pageSize);
+        // 总数只按筛选条件统计，须在追加游标条件之前执行
+        Long total = withTotal ? count(queryWrapper) : null;
+
+        PageCursor.apply(queryWrapper, Order::getCreateTime, Order::getId, pageCursor);
+        List<Order> orders = page(new Page<Order>(1, pageSize + 1, false), queryWrapper).getRecords();
+
+        CursorPage<OrderVO> cursorPage = CursorPage.of(orders, pageSize,
+                order -> PageCursor.encode(order.getCreateTime(), order.getId()), this::toOrderVOList);
+        cursorPage.setTotal(total);
+        return cursorPage;
+    }
+    
     /**
      * 处理OrderVO分页对象
      * @param pageInfo 订单分页对象
@@ -407,59 +578,54 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Order> implements
         // 构造OrderVO分页对象
         Page<OrderVO> orderVOPage = new Page<>();
         BeanUtils.copyProperties(pageInfo, orderVOPage, "records");
+        orderVOPage.setRecords(toOrderVOList(pageInfo.getRecords()));
+        return orderVOPage;
+    }
+
+    /**
+     * 批量转换为OrderVO
+     * @param orders 订单列表
+     * @return OrderVO列表
+     */
+    private List<OrderVO> toOrderVOList(List<Order> orders) {
+        // 用户和桌位信息已在下单时缓存；尚未回填的历史订单，用户一次批量查询，桌位从内存索引解析
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getUserName() == null && order.getUserId() != null) {
+                userIds.add(order.getUserId());
+            }
+        }
+        Map<Long, User> userMap = userIds.isEmpty() ? Collections.emptyMap()
+                : userService.listByIds(userIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
         
         // 处理订单记录
-        List<OrderVO> orderVOList = pageInfo.getRecords().stream().map(order -> {
+        return orders.stream().map(order -> {
             OrderVO orderVO = new OrderVO();
             BeanUtils.copyProperties(order, orderVO);
             
-            // 查询用户信息
-            User user = userService.getById(order.getUserId());
+            // 设置用户信息
+            User user = order.getUserName() == null ? userMap.get(order.getUserId()) : null;
             if (user != null) {
                 orderVO.setUserName(user.getNickName());
             }
             
-            // 查询桌位信息
-            if (order.getTableId() != null && !order.getTableId().isEmpty()) {
-                try {
-                    // 尝试解析为数字ID
-                    Long tableIdNum = Long.parseLong(order.getTableId());
-                    TableInfo tableInfo = tableInfoService.getById(tableIdNum);
-                    if (tableInfo != null) {
-                        orderVO.setTableName(tableInfo.getName());
-                        orderVO.setTableCode(tableInfo.getCode());
-                    }
-                } catch (NumberFormatException e) {
-                    // 如果不是数字ID，可能是桌位编码，尝试根据编码查找
-                    TableInfo tableInfo = tableInfoService.getByCode(order.getTableId());
-                    if (tableInfo != null) {
-                        orderVO.setTableName(tableInfo.getName());
-                        orderVO.setTableCode(tableInfo.getCode());
-                    } else {
-                        // 如果还没找到，直接使用tableId作为名称
-                        orderVO.setTableName(order.getTableId());
-                        orderVO.setTableCode(order.getTableId());
-                    }
-                }
+            // 设置桌位信息
+            if (order.getTableName() == null && StringUtils.isNotEmpty(order.getTableId())) {
+                resolveTable(orderVO, order.getTableId());
             }
             
             return orderVO;
         }).collect(Collectors.toList());
-        
-        orderVOPage.setRecords(orderVOList);
-        
-        return orderVOPage;
     }
-    
+
     /**
-     * 生成订单号
-     * @return 订单号
+     * 解析尚未回填的历史订单的桌位，无法解析时名称为"桌号"加桌位标识、编码为桌位标识
      */
-    private String generateOrderNumber() {
-        // 格式：时间戳 + 6位随机数
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomNum = String.valueOf((int)((Math.random() * 9 + 1) * 100000));
-        return timestamp + randomNum;
+    private void resolveTable(OrderVO orderVO, String tableId) {
+        TableInfo tableInfo = tableResolver.resolve(tableId);
+        orderVO.setTableName(tableInfo != null ? tableInfo.getName() : TABLE_NAME_PREFIX + tableId);
+        orderVO.setTableCode(tableInfo != null ? tableInfo.getCode() : tableId);
     }
     
     /**
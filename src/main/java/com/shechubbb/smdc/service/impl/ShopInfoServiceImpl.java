@@ -2,16 +2,43 @@ package com.shechubbb.smdc.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.PreparedJson;
 import com.shechubbb.smdc.entity.ShopInfo;
 import com.shechubbb.smdc.mapper.ShopInfoMapper;
 import com.shechubbb.smdc.service.ShopInfoService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 店铺信息Service实现类
  */
 @Service
 public class ShopInfoServiceImpl extends ServiceImpl<ShopInfoMapper, ShopInfo> implements ShopInfoService {
+
+    // 与Spring MVC共用的ObjectMapper，预序列化结果与接口直接返回对象时一致
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 缓存最大存活时间与菜单快照一致，多实例部署时用于同步其他实例的修改
+    @Value("${smdc.menu.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // 缓存失效次数，用于丢弃失效前开始加载的旧数据
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile CachedShopInfo cached;
     
     @Override
     public ShopInfo getShopInfo() {
@@ -20,11 +47,72 @@ public class ShopInfoServiceImpl extends ServiceImpl<ShopInfoMapper, ShopInfo> i
         queryWrapper.eq(ShopInfo::getId, 1L);
         return getOne(queryWrapper);
     }
+
+    @Override
+    public ShopInfo getCachedShopInfo() {
+        CachedShopInfo entry = loadCached();
+        if (entry == null) {
+            return null;
+        }
+        // 返回副本，调用方修改不影响缓存
+        ShopInfo copy = new ShopInfo();
+        BeanUtils.copyProperties(entry.shopInfo, copy);
+        return copy;
+    }
+
+    @Override
+    public PreparedJson getShopInfoJson() {
+        CachedShopInfo entry = loadCached();
+        return entry != null ? entry.json : null;
+    }
     
     @Override
     public boolean updateShopInfo(ShopInfo shopInfo) {
         // 确保更新的是ID为1的店铺信息
         shopInfo.setId(1L);
-        return updateById(shopInfo);
+        boolean updated = updateById(shopInfo);
+        invalidations.incrementAndGet();
+        cached = null;
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SHOP));
+        return updated;
+    }
+
+    /**
+     * 获取缓存条目，不存在或过期时重新查询
+     * @return 缓存条目，店铺信息不存在时返回null
+     */
+    private CachedShopInfo loadCached() {
+        CachedShopInfo entry = cached;
+        if (entry != null && (maxAgeSeconds <= 0
+                || System.nanoTime() - entry.loadNanos <= TimeUnit.SECONDS.toNanos(maxAgeSeconds))) {
+            return entry;
+        }
+        long invalidationsBefore = invalidations.get();
+        ShopInfo shopInfo = getShopInfo();
+        if (shopInfo == null) {
+            return null;
+        }
+        // 响应体与店铺信息一起缓存，ETag由响应内容生成
+        entry = new CachedShopInfo(shopInfo, PreparedJson.of(objectMapper, Result.success(shopInfo), "shop"),
+                System.nanoTime());
+        if (invalidations.get() == invalidationsBefore) {
+            cached = entry;
+        }
+        return entry;
+    }
+
+    /**
+     * 店铺信息缓存条目
+     */
+    private static final class CachedShopInfo {
+        private final ShopInfo shopInfo;
+        private final PreparedJson json;
+        private final long loadNanos;
+
+        private CachedShopInfo(ShopInfo shopInfo, PreparedJson json, long loadNanos) {
+            this.shopInfo = shopInfo;
+            this.json = json;
+            this.loadNanos = loadNanos;
+        }
     }
-} 
\ No newline at end of file
+}
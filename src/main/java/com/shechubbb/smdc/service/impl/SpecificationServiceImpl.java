@@ -2,14 +2,20 @@ package com.shechubbb.smdc.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
 import com.shechubbb.smdc.entity.Specification;
 import com.shechubbb.smdc.mapper.SpecificationMapper;
 import com.shechubbb.smdc.service.SpecificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +24,9 @@ import java.util.stream.Collectors;
 @Service
 public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, Specification> implements SpecificationService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 根据菜品ID查询规格列表
      * @param dishId 菜品ID
@@ -30,6 +39,21 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
         return list(queryWrapper);
     }
 
+    /**
+     * 根据菜品ID批量查询规格，一次IN查询后按菜品ID分组
+     * @param dishIds 菜品ID集合
+     * @return 菜品ID → 规格列表，没有规格的菜品不在结果中
+     */
+    @Override
+    public Map<Long, List<Specification>> listByDishIds(Collection<Long> dishIds) {
+        if (dishIds == null || dishIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        LambdaQueryWrapper<Specification> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.in(Specification::getDishId, dishIds);
+        return list(queryWrapper).stream().collect(Collectors.groupingBy(Specification::getDishId));
+    }
+
     /**
      * 添加规格
      * @param specification 规格信息
@@ -39,6 +63,7 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
         specification.setCreateTime(LocalDateTime.now());
         specification.setUpdateTime(LocalDateTime.now());
         save(specification);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SPECIFICATION));
     }
 
     /**
@@ -49,6 +74,7 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
     public void update(Specification specification) {
         specification.setUpdateTime(LocalDateTime.now());
         updateById(specification);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SPECIFICATION));
     }
 
     /**
@@ -58,6 +84,7 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
     @Override
     public void delete(Long id) {
         removeById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SPECIFICATION));
     }
 
     /**
@@ -81,6 +108,7 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
         
         // 批量保存
         saveBatch(specList);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SPECIFICATION));
     }
 
     /**
@@ -92,5 +120,6 @@ public class SpecificationServiceImpl extends ServiceImpl<SpecificationMapper, S
         LambdaQueryWrapper<Specification> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Specification::getDishId, dishId);
         remove(queryWrapper);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Target.SPECIFICATION));
     }
 } 
\ No newline at end of file
@@ -4,15 +4,19 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.event.TableChangedEvent;
 import com.shechubbb.smdc.entity.TableInfo;
 import com.shechubbb.smdc.mapper.TableInfoMapper;
 import com.shechubbb.smdc.service.TableInfoService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -22,6 +26,9 @@ import java.util.UUID;
 @Service
 public class TableInfoServiceImpl extends ServiceImpl<TableInfoMapper, TableInfo> implements TableInfoService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 分页查询桌位
      */
@@ -45,6 +52,7 @@ public class TableInfoServiceImpl extends ServiceImpl<TableInfoMapper, TableInfo
         
         // 保存数据
         save(tableInfo);
+        eventPublisher.publishEvent(new TableChangedEvent(tableInfo.getId()));
     }
 
     /**
@@ -55,6 +63,7 @@ public class TableInfoServiceImpl extends ServiceImpl<TableInfoMapper, TableInfo
     public void update(TableInfo tableInfo) {
         tableInfo.setUpdateTime(LocalDateTime.now());
         updateById(tableInfo);
+        eventPublisher.publishEvent(new TableChangedEvent(tableInfo.getId()));
     }
 
     /**
@@ -64,6 +73,7 @@ public class TableInfoServiceImpl extends ServiceImpl<TableInfoMapper, TableInfo
     @Transactional
     public void delete(Long id) {
         removeById(id);
+        eventPublisher.publishEvent(new TableChangedEvent(id));
     }
 
     /**
@@ -112,11 +122,33 @@ public class TableInfoServiceImpl extends ServiceImpl<TableInfoMapper, TableInfo
     @Override
     @Transactional
     public void updateStatus(Long id, Integer status) {
-        TableInfo tableInfo = getById(id);
-        if (tableInfo != null) {
-            tableInfo.setStatus(status);
-            tableInfo.setUpdateTime(LocalDateTime.now());
-            updateById(tableInfo);
+        // 单条更新语句，桌位不存在时影响行数为0
+        boolean updated = lambdaUpdate()
+                .set(TableInfo::getStatus, status)
+                .set(TableInfo::getUpdateTime, LocalDateTime.now())
+                .eq(TableInfo::getId, id)
+                .update();
+        if (updated) {
+            eventPublisher.publishEvent(new TableChangedEvent(id));
+        }
+    }
+    
+    /**
+     * 批量更新桌位状态，一条更新语句
+     */
+    @Override
+    @Transactional
+    public void updateStatus(Collection<Long> ids, Integer status) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        boolean updated = lambdaUpdate()
+                .set(TableInfo::getStatus, status)
+                .set(TableInfo::getUpdateTime, LocalDateTime.now())
+                .in(TableInfo::getId, ids)
+                .update();
+        if (updated) {
+            eventPublisher.publishEvent(new TableChangedEvent(new ArrayList<>(ids)));
         }
     }
     
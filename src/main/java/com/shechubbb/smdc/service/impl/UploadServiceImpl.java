@@ -0,0 +1,136 @@
+package com.shechubbb.smdc.service.impl;
+
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.task.ImageVariantGenerator;
+import com.shechubbb.smdc.service.UploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 文件上传服务实现类
+ * 边写入临时文件边计算摘要，写完后改名为 SHA-256.扩展名；同名文件已存在时说明内容相同，直接复用
+ */
+@Slf4j
+@Service
+public class UploadServiceImpl implements UploadService {
+
+    private static final List<String> IMAGE_SUFFIXES = Arrays.asList("jpg", "png", "gif", "webp", "bmp");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Value("${smdc.upload-path}")
+    private String uploadPath;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    /**
+     * 保存上传的图片，并在后台生成多尺寸版本
+     * @param file 上传文件
+     * @return 访问路径（相对路径）
+     */
+    @Override
+    public String saveImage(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("请选择要上传的图片");
+        }
+        String suffix = suffix(file.getOriginalFilename());
+        if (!IMAGE_SUFFIXES.contains(suffix)) {
+            throw new BusinessException("仅支持" + String.join("、", IMAGE_SUFFIXES) + "格式的图片");
+        }
+
+        String fileName;
+        try {
+            fileName = store(file, suffix);
+        } catch (IOException e) {
+            log.error("文件上传失败：", e);
+            throw new BusinessException("文件上传失败");
+        }
+
+        // 返回完整的访问路径
+        String url = ImageVariantGenerator.URL_PREFIX + fileName;
+
+        // 后台生成多尺寸版本，不阻塞上传
+        imageVariantGenerator.submit(url);
+        return url;
+    }
+
+    /**
+     * 写入临时文件并计算摘要，再改名为内容摘要
+     * @return 文件名
+     */
+    private String store(MultipartFile file, String suffix) throws IOException {
+        Path dir = Paths.get(uploadPath);
+        Files.createDirectories(dir);
+
+        // 以.开头的临时文件不会被当作上传文件访问
+        Path temp = dir.resolve("." + UUID.randomUUID() + ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String fileName = hex(digest.digest()) + "." + suffix;
+            Path target = dir.resolve(fileName);
+            if (Files.exists(target)) {
+                // 刷新修改时间，使复用的文件在保存到菜品前处于清理宽限期内
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                log.info("图片内容已存在，复用已有文件：{}", fileName);
+            } else {
+                // 并发上传相同内容时后改名的覆盖先改名的，内容一致
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("图片文件已保存：{}", fileName);
+            }
+            return fileName;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 小写扩展名，jpeg统一为jpg，使相同内容得到相同文件名
+     */
+    private static String suffix(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String suffix = dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return "jpeg".equals(suffix) ? "jpg" : suffix;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -4,6 +4,7 @@ import cn.binarywang.wx.miniapp.api.WxMaService;
 import cn.binarywang.wx.miniapp.bean.WxMaJscode2SessionResult;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shechubbb.smdc.common.cache.PrincipalCache;
 import com.shechubbb.smdc.common.exception.BusinessException;
 import com.shechubbb.smdc.entity.User;
 import com.shechubbb.smdc.mapper.UserMapper;
@@ -26,6 +27,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Autowired
     private WxMaService wxMaService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     /**
      * 微信登录
      * @param code 登录凭证
@@ -92,6 +96,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 setUserInfo(user, userInfo);
                 user.setUpdateTime(LocalDateTime.now());
                 updateById(user);
+                principalCache.invalidateUser(user.getId());
             }
             
             return user;
@@ -147,6 +152,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     public void updateUser(User user) {
         user.setUpdateTime(LocalDateTime.now());
         updateById(user);
+        principalCache.invalidateUser(user.getId());
     }
 
     /**
@@ -203,6 +209,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 // 更新最后登录时间
                 currentUser.setLastLoginTime(LocalDateTime.now());
                 this.updateById(currentUser);
+                principalCache.invalidateUser(currentUser.getId());
             }
             
             return currentUser;
@@ -245,6 +252,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                     // 更新登录时间
                     user.setLastLoginTime(LocalDateTime.now());
                     this.updateById(user);
+                    principalCache.invalidateUser(user.getId());
                 }
                 return user;
             }
@@ -259,6 +267,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
                 // 更新登录时间
                 user.setLastLoginTime(LocalDateTime.now());
                 this.updateById(user);
+                principalCache.invalidateUser(user.getId());
                 return user;
             }
         } catch (Exception e) {
@@ -0,0 +1,291 @@
+package com.shechubbb.smdc.servlet;
+
+import com.shechubbb.smdc.common.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传文件访问Servlet
+ * 直接注册在/upload/*，不经过DispatcherServlet、拦截器和资源处理链。
+ * 小文件整体缓存在内存中直接写出；大文件在Tomcat支持时交给sendfile零拷贝发送，否则用FileChannel.transferTo写出。
+ * 上传文件按内容命名且写入后不再修改，响应设置一年的immutable缓存，以文件名作为ETag，支持If-None-Match和单段Range
+ */
+@Component
+public class UploadFileServlet extends HttpServlet {
+
+    /**
+     * 缓存时间一年，immutable表示有效期内刷新页面也不重新验证
+     */
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat sendfile请求属性，支持时由连接器设置support，Servlet设置文件和范围后由连接器发送
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Range不可满足
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Value("${smdc.upload-path}")
+    private String uploadPath;
+
+    // 热点小文件缓存的最大文件数
+    @Value("${smdc.upload.serving.hot-cache.max-entries:512}")
+    private int hotCacheMaxEntries;
+
+    // 可缓存的最大文件大小，单位字节，缓存最多占用 max-entries × max-file-bytes
+    @Value("${smdc.upload.serving.hot-cache.max-file-bytes:65536}")
+    private int hotCacheMaxFileBytes;
+
+    // 缓存存活时间，单位分钟，过期后冷门文件让出空间
+    @Value("${smdc.upload.serving.hot-cache.ttl-minutes:30}")
+    private long hotCacheTtlMinutes;
+
+    // 使用sendfile的最小发送字节数，较小的内容直接写出更快
+    @Value("${smdc.upload.serving.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    // 文件名 → 文件内容
+    private ExpiringCache<String, CachedFile> hotCache;
+
+    @PostConstruct
+    public void initCache() {
+        hotCache = new ExpiringCache<>(hotCacheMaxEntries, TimeUnit.MINUTES.toMillis(hotCacheTtlMinutes));
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, true);
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, false);
+    }
+
+    /**
+     * 热点小文件缓存
+     */
+    public ExpiringCache<String, CachedFile> getHotCache() {
+        return hotCache;
+    }
+
+    /**
+     * 删除文件后移出缓存
+     * @param fileName 文件名
+     */
+    public void evict(String fileName) {
+        hotCache.invalidate(fileName);
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, boolean body) throws IOException {
+        String fileName = fileName(request);
+        if (fileName == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // 命中缓存时不访问文件系统
+        CachedFile cached = hotCache.get(fileName);
+        Path path = Paths.get(uploadPath, fileName);
+        long length;
+        long lastModified;
+        if (cached != null) {
+            length = cached.content.length;
+            lastModified = cached.lastModified;
+        } else {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            if (!attributes.isRegularFile()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            length = attributes.size();
+            lastModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        String etag = "\"" + fileName + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (parsed != null) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if (!body || count == 0) {
+            return;
+        }
+
+        if (cached == null && length <= hotCacheMaxFileBytes) {
+            try {
+                cached = new CachedFile(Files.readAllBytes(path), lastModified);
+            } catch (NoSuchFileException e) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            hotCache.put(fileName, cached);
+        }
+        if (cached != null) {
+            response.getOutputStream().write(cached.content, (int) start, (int) count);
+        } else if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            transfer(path, start, count, response);
+        }
+    }
+
+    /**
+     * 用FileChannel.transferTo写出文件的指定范围
+     */
+    private static void transfer(Path path, long start, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    throw new IOException("文件在发送过程中被截断：" + path.getFileName());
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * 请求的文件名，只接受上传目录下的文件，以.开头的临时文件不可访问
+     */
+    private static String fileName(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        if (pathInfo == null || pathInfo.length() < 2) {
+            return null;
+        }
+        String fileName = pathInfo.substring(1);
+        if (fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+            return null;
+        }
+        return fileName;
+    }
+
+    /**
+     * If-Range与当前文件一致时才按Range返回，否则返回完整文件
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析单段Range
+     * @param range Range请求头
+     * @param length 文件长度
+     * @return 起止位置（含），格式不支持或多段时返回null（返回完整文件），不可满足时返回UNSATISFIABLE
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                // 最后n个字节
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 缓存的文件内容
+     */
+    public static final class CachedFile {
+        private final byte[] content;
+        private final long lastModified;
+
+        private CachedFile(byte[] content, long lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.shechubbb.smdc.vo;
+
+import com.shechubbb.smdc.entity.ShopInfo;
+import com.shechubbb.smdc.entity.TableInfo;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 扫码点餐首屏数据视图对象
+ */
+@Data
+public class BootstrapVO {
+
+    /**
+     * 桌位信息
+     */
+    private TableInfo tableInfo;
+
+    /**
+     * 店铺信息
+     */
+    private ShopInfo shopInfo;
+
+    /**
+     * 菜单快照版本号
+     */
+    private Long menuVersion;
+
+    /**
+     * 分类及菜品
+     */
+    private List<MenuCategoryVO> menu;
+
+    /**
+     * 当前用户在该桌位的待支付订单，没有时为null
+     */
+    private OrderVO pendingOrder;
+}
@@ -0,0 +1,58 @@
+package com.shechubbb.smdc.vo;
+
+import com.shechubbb.smdc.common.util.ExpiringCache;
+import lombok.Data;
+
+/**
+ * 缓存统计视图对象
+ */
+@Data
+public class CacheStatsVO {
+
+    /**
+     * 缓存名称
+     */
+    private String name;
+
+    /**
+     * 当前条目数
+     */
+    private Integer size;
+
+    /**
+     * 命中次数
+     */
+    private Long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private Long missCount;
+
+    /**
+     * 淘汰次数
+     */
+    private Long evictionCount;
+
+    /**
+     * 命中率
+     */
+    private Double hitRate;
+
+    /**
+     * 根据缓存生成统计信息
+     * @param name 缓存名称
+     * @param cache 缓存
+     * @return 统计信息
+     */
+    public static CacheStatsVO of(String name, ExpiringCache<?, ?> cache) {
+        CacheStatsVO stats = new CacheStatsVO();
+        stats.setName(name);
+        stats.setSize(cache.size());
+        stats.setHitCount(cache.getHitCount());
+        stats.setMissCount(cache.getMissCount());
+        stats.setEvictionCount(cache.getEvictionCount());
+        stats.setHitRate(cache.getHitRate());
+        return stats;
+    }
+}
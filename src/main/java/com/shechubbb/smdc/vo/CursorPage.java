@@ -0,0 +1,54 @@
+package com.shechubbb.smdc.vo;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 本页记录
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private Boolean hasMore;
+
+    /**
+     * 总记录数，仅在请求统计时返回
+     */
+    private Long total;
+
+    /**
+     * 根据多查询一行的结果构造分页
+     * @param rows 查询结果，最多pageSize + 1行
+     * @param pageSize 每页记录数
+     * @param cursorOf 根据行生成游标
+     * @param converter 记录转换
+     * @return 游标分页结果
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int pageSize, Function<E, String> cursorOf,
+                                          Function<List<E>, List<T>> converter) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        CursorPage<T> cursorPage = new CursorPage<>();
+        cursorPage.setHasMore(hasMore);
+        cursorPage.setNextCursor(hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null);
+        cursorPage.setRecords(pageRows.isEmpty() ? Collections.<T>emptyList() : converter.apply(pageRows));
+        return cursorPage;
+    }
+}
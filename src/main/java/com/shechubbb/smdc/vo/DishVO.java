@@ -21,4 +21,9 @@ public class DishVO extends Dish {
      * 规格列表
      */
     private List<Specification> specifications;
+
+    /**
+     * 图片多尺寸版本，尚未生成时为null，客户端使用原图
+     */
+    private ImageVariantsVO imageVariants;
 } 
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.shechubbb.smdc.vo;
+
+import com.shechubbb.smdc.common.json.ImageUrl;
+import lombok.Data;
+
+/**
+ * 图片多尺寸版本
+ * 由上传的原图在后台生成，客户端按显示尺寸选用，避免下载原图
+ */
+@Data
+public class ImageVariantsVO {
+
+    /**
+     * 缩略图，宽120像素，用于购物车等小图
+     */
+    @ImageUrl
+    private String thumbnail;
+
+    /**
+     * 列表图，宽375像素
+     */
+    @ImageUrl
+    private String list;
+
+    /**
+     * 详情图，宽750像素
+     */
+    @ImageUrl
+    private String detail;
+
+    /**
+     * 模糊占位图，data URI，图片加载完成前拉伸显示
+     */
+    private String placeholder;
+}
@@ -0,0 +1,33 @@
+package com.shechubbb.smdc.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 菜单分类视图对象
+ * 分类及其下的在售菜品（含规格）
+ */
+@Data
+public class MenuCategoryVO {
+
+    /**
+     * 分类ID
+     */
+    private Long id;
+
+    /**
+     * 分类名称
+     */
+    private String name;
+
+    /**
+     * 排序号
+     */
+    private Integer sort;
+
+    /**
+     * 在售菜品列表
+     */
+    private List<DishVO> dishes;
+}
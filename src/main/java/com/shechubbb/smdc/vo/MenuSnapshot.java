@@ -0,0 +1,132 @@
+package com.shechubbb.smdc.vo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.common.util.PreparedJson;
+import com.shechubbb.smdc.entity.Category;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 菜单快照
+ * 分类 → 在售菜品 → 规格的只读视图，构建完成后整体替换，不做局部修改
+ */
+@Getter
+public class MenuSnapshot {
+
+    /**
+     * 快照版本号，取自菜单目录版本号，每次重建递增
+     */
+    private final long version;
+
+    /**
+     * 快照的强ETag（带引号），由分类和全部在售菜品的响应内容生成
+     */
+    private final String eTag;
+
+    /**
+     * 构建开始时间（System.nanoTime）
+     */
+    private final long buildNanos;
+
+    /**
+     * 分类列表（按排序号升序）
+     */
+    private final List<Category> categories;
+
+    /**
+     * 分类ID → 在售菜品列表（按排序号升序）
+     */
+    private final Map<Long, List<DishVO>> dishesByCategory;
+
+    /**
+     * 菜品ID → 在售菜品
+     */
+    private final Map<Long, DishVO> dishById;
+
+    /**
+     * 分类及其在售菜品，供扫码首屏一次性返回
+     */
+    private final List<MenuCategoryVO> menu;
+
+    /**
+     * 分类列表响应体（预序列化）
+     */
+    private final PreparedJson categoriesJson;
+
+    /**
+     * 分类ID → 菜品列表响应体（预序列化）
+     */
+    private final Map<Long, PreparedJson> dishesJson;
+
+    /**
+     * 空菜品列表响应体，分类不存在或没有在售菜品时使用
+     */
+    private final PreparedJson emptyDishesJson;
+
+    public MenuSnapshot(long version, long buildNanos, List<Category> categories,
+                        Map<Long, List<DishVO>> dishesByCategory, Map<Long, DishVO> dishById,
+                        ObjectMapper objectMapper) {
+        this.version = version;
+        this.buildNanos = buildNanos;
+        this.categories = Collections.unmodifiableList(categories);
+        this.dishesByCategory = Collections.unmodifiableMap(dishesByCategory);
+        this.dishById = Collections.unmodifiableMap(dishById);
+
+        List<MenuCategoryVO> menuCategories = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            MenuCategoryVO menuCategory = new MenuCategoryVO();
+            menuCategory.setId(category.getId());
+            menuCategory.setName(category.getName());
+            menuCategory.setSort(category.getSort());
+            menuCategory.setDishes(getDishes(category.getId()));
+            menuCategories.add(menuCategory);
+        }
+        this.menu = Collections.unmodifiableList(menuCategories);
+
+        // 响应体在构建时一次性序列化并压缩，与接口返回的Result结构一致，各自按内容生成ETag
+        this.categoriesJson = PreparedJson.of(objectMapper, Result.success(this.categories), "categories");
+        Map<Long, PreparedJson> dishesJsonMap = new HashMap<>();
+        for (Map.Entry<Long, List<DishVO>> entry : this.dishesByCategory.entrySet()) {
+            dishesJsonMap.put(entry.getKey(), PreparedJson.of(objectMapper, Result.success(entry.getValue()), "dishes"));
+        }
+        this.dishesJson = Collections.unmodifiableMap(dishesJsonMap);
+        this.emptyDishesJson = PreparedJson.of(objectMapper, Result.success(Collections.emptyList()), "dishes");
+
+        // 按分类ID顺序汇总，内容相同的快照在重建后和其他实例上得到相同的ETag
+        List<Long> categoryIds = new ArrayList<>(dishesJsonMap.keySet());
+        categoryIds.sort(Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+        List<byte[]> contents = new ArrayList<>(categoryIds.size() + 1);
+        contents.add(categoriesJson.getRaw());
+        for (Long categoryId : categoryIds) {
+            contents.add(dishesJsonMap.get(categoryId).getRaw());
+        }
+        this.eTag = PreparedJson.etag("menu", contents.toArray(new byte[0][]));
+    }
+
+    /**
+     * 获取分类下在售菜品的预序列化响应体
+     * @param categoryId 分类ID
+     * @return 响应体，分类不存在时返回空列表响应体
+     */
+    public PreparedJson getDishesJson(Long categoryId) {
+        PreparedJson json = dishesJson.get(categoryId);
+        return json != null ? json : emptyDishesJson;
+    }
+
+    /**
+     * 获取分类下的在售菜品
+     * @param categoryId 分类ID
+     * @return 菜品列表，分类不存在时返回空列表
+     */
+    public List<DishVO> getDishes(Long categoryId) {
+        List<DishVO> dishes = dishesByCategory.get(categoryId);
+        return dishes != null ? dishes : Collections.<DishVO>emptyList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.shechubbb.smdc.vo;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单推送事件视图对象
+ */
+@Data
+public class OrderStreamEventVO {
+
+    /**
+     * 事件序号，断线重连时作为Last-Event-ID回传
+     */
+    private Long eventId;
+
+    /**
+     * 变更类型：CREATE、PAY、ACCEPT、CANCEL、EXPIRE、COMPLETE
+     */
+    private String type;
+
+    /**
+     * 订单ID
+     */
+    private Long orderId;
+
+    /**
+     * 订单号
+     */
+    private String number;
+
+    /**
+     * 订单状态
+     */
+    private Integer status;
+
+    /**
+     * 桌位ID或桌台号
+     */
+    private String tableId;
+
+    /**
+     * 总金额
+     */
+    private BigDecimal amount;
+
+    /**
+     * 事件时间
+     */
+    private LocalDateTime time;
+}
@@ -0,0 +1,35 @@
+package com.shechubbb.smdc.vo;
+
+import lombok.Data;
+
+/**
+ * 桌位平面图视图对象
+ */
+@Data
+public class TableFloorVO {
+
+    /**
+     * 桌位ID
+     */
+    private Long id;
+
+    /**
+     * 桌位名称
+     */
+    private String name;
+
+    /**
+     * 桌位二维码
+     */
+    private String code;
+
+    /**
+     * 状态，0空闲，1使用中
+     */
+    private Integer status;
+
+    /**
+     * 未结束（待付款、已支付）的订单数
+     */
+    private Integer openOrders;
+}
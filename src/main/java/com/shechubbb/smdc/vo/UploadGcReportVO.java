@@ -0,0 +1,74 @@
+package com.shechubbb.smdc.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 上传文件清理报告视图对象
+ */
+@Data
+public class UploadGcReportVO {
+
+    /**
+     * 是否为演练（只统计不删除）
+     */
+    private Boolean dryRun;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 耗时，单位毫秒
+     */
+    private Long durationMillis;
+
+    /**
+     * 宽限期，单位小时，修改时间在宽限期内的文件不删除
+     */
+    private Long graceHours;
+
+    /**
+     * 数据库中引用的图片数（去重）
+     */
+    private Integer referencedCount;
+
+    /**
+     * 扫描的文件数
+     */
+    private Long scannedFiles;
+
+    /**
+     * 扫描的文件总大小，单位字节
+     */
+    private Long scannedBytes;
+
+    /**
+     * 未引用且超过宽限期的文件数
+     */
+    private Long orphanFiles;
+
+    /**
+     * 未引用且超过宽限期的文件总大小，单位字节
+     */
+    private Long orphanBytes;
+
+    /**
+     * 已删除的文件数
+     */
+    private Long deletedFiles;
+
+    /**
+     * 已删除的文件总大小，单位字节
+     */
+    private Long deletedBytes;
+
+    /**
+     * 部分未引用文件名
+     */
+    private List<String> samples = new ArrayList<>();
+}
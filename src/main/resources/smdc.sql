@@ -72,7 +72,8 @@ CREATE TABLE IF NOT EXISTS `dish` (
   `create_time` datetime DEFAULT NULL COMMENT '创建时间',
   `update_time` datetime DEFAULT NULL COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_category_id` (`category_id`)
+  KEY `idx_category_id` (`category_id`),
+  KEY `idx_update_time_id` (`update_time`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='菜品表';
 
 -- 规格表
@@ -106,6 +107,9 @@ CREATE TABLE IF NOT EXISTS `order` (
   `number` varchar(50) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '订单号',
   `user_id` bigint(20) NOT NULL COMMENT '用户id',
   `table_id` varchar(32) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '桌位id或桌台号',
+  `table_name` varchar(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '桌位名称（下单时缓存）',
+  `table_code` varchar(32) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '桌位二维码（下单时缓存）',
+  `user_name` varchar(32) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '用户昵称（下单时缓存）',
   `amount` decimal(10,2) NOT NULL COMMENT '总金额',
   `status` tinyint(4) NOT NULL DEFAULT '1' COMMENT '订单状态 1:待付款 2:待接单 3:待上菜 4:已完成 5:已取消',
   `pay_method` tinyint(4) DEFAULT NULL COMMENT '支付方式 1:微信支付 2:支付宝支付',
@@ -115,8 +119,10 @@ CREATE TABLE IF NOT EXISTS `order` (
   `update_time` datetime DEFAULT NULL COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `idx_number` (`number`),
-  KEY `idx_user_id` (`user_id`),
-  KEY `idx_table_id` (`table_id`)
+  KEY `idx_user_create_time_id` (`user_id`, `create_time`, `id`),
+  KEY `idx_table_id` (`table_id`),
+  KEY `idx_create_time_id` (`create_time`, `id`),
+  KEY `idx_status_create_time` (`status`, `create_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
 -- 订单明细表
@@ -135,6 +141,21 @@ CREATE TABLE IF NOT EXISTS `order_detail` (
   KEY `idx_order_id` (`order_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单明细表';
 
+-- 幂等请求记录表
+CREATE TABLE IF NOT EXISTS `idempotency_record` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `user_id` bigint(20) NOT NULL COMMENT '用户id',
+  `scope` varchar(32) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '接口范围',
+  `idem_key` varchar(64) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '幂等键',
+  `fingerprint` char(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '请求体指纹',
+  `status` tinyint(4) NOT NULL DEFAULT '0' COMMENT '状态，0处理中，1已完成',
+  `response` text COLLATE utf8mb4_unicode_ci COMMENT '首次请求的响应结果',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_user_scope_key` (`user_id`, `scope`, `idem_key`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='幂等请求记录表';
+
 -- 店铺信息表
 CREATE TABLE `shop_info` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键',
@@ -0,0 +1,88 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.entity.Dish;
+import com.shechubbb.smdc.mapper.DishMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 菜品搜索索引测试
+ * 验证汉字、全拼、首字母、子串和模糊匹配，以及按行增量更新
+ */
+class DishSearchIndexTest {
+
+    private DishSearchIndex index;
+
+    private DishMapper dishMapper;
+
+    @BeforeEach
+    void setUp() {
+        dishMapper = mock(DishMapper.class);
+        List<Dish> dishes = new ArrayList<>();
+        dishes.add(dish(1L, "红烧肉", 2));
+        dishes.add(dish(2L, "红烧茄子", 1));
+        dishes.add(dish(3L, "宫保鸡丁", 3));
+        dishes.add(dish(4L, "可乐", 4));
+        when(dishMapper.selectList(isNull())).thenReturn(dishes);
+
+        index = new DishSearchIndex();
+        ReflectionTestUtils.setField(index, "dishMapper", dishMapper);
+        ReflectionTestUtils.setField(index, "maxAgeSeconds", 300L);
+    }
+
+    @Test
+    void matchesNamePinyinAndInitials() {
+        assertEquals(Arrays.asList(2L, 1L), index.search("红烧", 10));
+        assertEquals(Arrays.asList(2L, 1L), index.search("hongshao", 10));
+        assertEquals(Arrays.asList(1L), index.search("hsr", 10));
+        assertEquals(Arrays.asList(3L), index.search("GBJD", 10));
+    }
+
+    @Test
+    void matchesSubstringAndTypos() {
+        assertEquals(Arrays.asList(1L), index.search("shaorou", 10));
+        assertEquals(Arrays.asList(3L), index.search("gongbaoji", 10));
+        // 输错一个字母
+        assertEquals(Arrays.asList(3L), index.search("gongbap", 10));
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void filterIsAppliedBeforeLimit() {
+        // 排在前面的菜品被过滤后仍返回limit个
+        assertEquals(Arrays.asList(1L), index.search("红烧", 1, id -> id != 2L));
+        assertTrue(index.search("hongshao", 10, id -> false).isEmpty());
+    }
+
+    @Test
+    void updatesSingleDishIncrementally() {
+        assertEquals(Arrays.asList(4L), index.search("kl", 10));
+
+        when(dishMapper.selectById(4L)).thenReturn(dish(4L, "雪碧", 4));
+        index.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Target.DISH, 4L));
+
+        assertTrue(index.search("kl", 10).isEmpty());
+        assertEquals(Arrays.asList(4L), index.search("xb", 10));
+        assertEquals(Arrays.asList(1L), index.search("hsr", 10));
+    }
+
+    private static Dish dish(Long id, String name, int sort) {
+        Dish dish = new Dish();
+        dish.setId(id);
+        dish.setName(name);
+        dish.setSort(sort);
+        return dish;
+    }
+}
@@ -0,0 +1,157 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.entity.IdempotencyRecord;
+import com.shechubbb.smdc.mapper.IdempotencyRecordMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 幂等请求存储测试
+ * 验证同一幂等键只执行一次业务，失败结果不保存，其他实例的结果从数据库记录还原，
+ * 请求体不一致时拒绝，租约已过的处理中记录可以接管
+ */
+class IdempotencyStoreTest {
+
+    private static final TypeReference<Result<Long>> LONG_RESULT = new TypeReference<Result<Long>>() {};
+
+    private static final Map<String, Object> BODY = Collections.singletonMap("id", 7);
+
+    private IdempotencyStore store;
+
+    private IdempotencyRecordMapper mapper;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper解析列名依赖实体元数据
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), IdempotencyRecord.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(IdempotencyRecordMapper.class);
+        store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "idempotencyRecordMapper", mapper);
+        ReflectionTestUtils.setField(store, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(store, "cacheSize", 100);
+        ReflectionTestUtils.setField(store, "ttlHours", 24L);
+        ReflectionTestUtils.setField(store, "processingLeaseSeconds", 60L);
+        store.init();
+    }
+
+    @Test
+    void retryReturnsFirstResultWithoutRerunning() {
+        AtomicInteger calls = new AtomicInteger();
+        Result<Long> first = store.execute(1L, "order_create", "k1", BODY, LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+        Result<Long> retry = store.execute(1L, "order_create", "k1", BODY, LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertSame(first, retry);
+        assertEquals(1, calls.get());
+        // 其他用户的同名幂等键互不影响
+        store.execute(2L, "order_create", "k1", BODY, LONG_RESULT, () -> Result.success((long) calls.incrementAndGet()));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failedResultIsReleased() {
+        AtomicInteger calls = new AtomicInteger();
+        Result<Long> failed = store.execute(1L, "order_pay", "k2", BODY, LONG_RESULT, () -> {
+            calls.incrementAndGet();
+            return Result.error("支付处理失败");
+        });
+        Result<Long> retry = store.execute(1L, "order_pay", "k2", BODY, LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(0, failed.getCode());
+        assertEquals(2L, retry.getData());
+    }
+
+    @Test
+    void resultStoredByOtherInstanceIsReplayed() {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setStatus(1);
+        stored.setResponse("{\"code\":1,\"msg\":\"操作成功\",\"data\":42}");
+        stored.setCreateTime(LocalDateTime.now());
+        when(mapper.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mapper.selectOne(any())).thenReturn(stored);
+
+        AtomicInteger calls = new AtomicInteger();
+        Result<Long> result = store.execute(1L, "order_create", "k3", BODY, LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(42L, result.getData());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void differentBodyWithSameKeyIsRejected() {
+        AtomicInteger calls = new AtomicInteger();
+        store.execute(1L, "order_pay", "k4", BODY, LONG_RESULT, () -> Result.success((long) calls.incrementAndGet()));
+        Result<Long> other = store.execute(1L, "order_pay", "k4", Collections.singletonMap("id", 8), LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(0, other.getCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void staleProcessingRecordIsTakenOver() {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setId(9L);
+        stored.setStatus(0);
+        stored.setCreateTime(LocalDateTime.now().minusMinutes(5));
+        when(mapper.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mapper.selectOne(any())).thenReturn(stored);
+        when(mapper.update(any(), any())).thenReturn(1);
+
+        Result<Long> result = store.execute(1L, "order_create", "k5", BODY, LONG_RESULT, () -> Result.success(5L));
+
+        assertEquals(5L, result.getData());
+        verify(mapper).update(any(), any());
+        ArgumentCaptor<IdempotencyRecord> completed = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(mapper).updateById(completed.capture());
+        assertEquals(9L, completed.getValue().getId());
+    }
+
+    @Test
+    void processingRecordWithinLeaseIsNotTakenOver() {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setId(9L);
+        stored.setStatus(0);
+        stored.setCreateTime(LocalDateTime.now());
+        when(mapper.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mapper.selectOne(any())).thenReturn(stored);
+
+        AtomicInteger calls = new AtomicInteger();
+        Result<Long> result = store.execute(1L, "order_create", "k6", BODY, LONG_RESULT,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(0, result.getCode());
+        assertEquals(0, calls.get());
+        verify(mapper, never()).update(any(), any());
+    }
+}
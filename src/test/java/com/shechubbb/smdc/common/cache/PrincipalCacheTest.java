@@ -0,0 +1,71 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.shechubbb.smdc.entity.Employee;
+import com.shechubbb.smdc.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 登录身份缓存测试
+ * 验证加载期间发生的移除不会被加载结果覆盖
+ */
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        cache.init();
+    }
+
+    @Test
+    void userLoadedBeforeInvalidationIsNotCached() {
+        long stamp = cache.userStamp(1L);
+        User stale = user(1L, "旧昵称");
+        // 加载期间用户被修改
+        cache.invalidateUser(1L);
+        cache.putUser(stale, stamp);
+        assertNull(cache.getUser(1L));
+
+        // 下一次加载读取新的计数后可以正常缓存
+        cache.putUser(user(1L, "新昵称"), cache.userStamp(1L));
+        assertEquals("新昵称", cache.getUser(1L).getNickName());
+    }
+
+    @Test
+    void employeeLoadedBeforeInvalidationIsNotCached() {
+        long stamp = cache.employeeStamp(2L);
+        Employee employee = new Employee();
+        employee.setId(2L);
+        cache.invalidateEmployee(2L);
+        cache.putEmployee(employee, stamp);
+        assertNull(cache.getEmployee(2L));
+
+        cache.putEmployee(employee, cache.employeeStamp(2L));
+        assertNotNull(cache.getEmployee(2L));
+    }
+
+    @Test
+    void cachedUserIsCopied() {
+        User user = user(3L, "昵称");
+        cache.putUser(user, cache.userStamp(3L));
+        user.setNickName("修改");
+        cache.getUser(3L).setNickName("再修改");
+        assertEquals("昵称", cache.getUser(3L).getNickName());
+    }
+
+    private static User user(Long id, String nickName) {
+        User user = new User();
+        user.setId(id);
+        user.setNickName(nickName);
+        return user;
+    }
+}
@@ -0,0 +1,161 @@
+package com.shechubbb.smdc.common.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.shechubbb.smdc.common.constant.OrderStatusConstant;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import com.shechubbb.smdc.mapper.TableInfoMapper;
+import com.shechubbb.smdc.service.TableInfoService;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 桌位占用引擎测试
+ * 验证同一桌位的多个订单全部结束后才空闲，且只有状态变化的桌位批量写回
+ */
+class TableOccupancyTest {
+
+    private TableOccupancy occupancy;
+
+    private TableInfoService tableInfoService;
+
+    private OrderMapper orderMapper;
+
+    private TableInfoMapper tableInfoMapper;
+
+    private TableResolver tableResolver;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper解析列名依赖实体元数据
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Order.class);
+        TableInfoHelper.initTableInfo(assistant, TableInfo.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = mock(OrderMapper.class);
+        tableInfoMapper = mock(TableInfoMapper.class);
+        tableResolver = mock(TableResolver.class);
+        tableInfoService = mock(TableInfoService.class);
+        when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
+        when(tableInfoMapper.selectList(any())).thenReturn(Arrays.asList(table(1L, 0), table(2L, 0)));
+        when(tableResolver.all()).thenReturn(Arrays.asList(table(1L, 0), table(2L, 0)));
+        when(tableResolver.resolveById(1L)).thenReturn(table(1L, 0));
+        when(tableResolver.resolve("1")).thenReturn(table(1L, 0));
+
+        occupancy = new TableOccupancy();
+        ReflectionTestUtils.setField(occupancy, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(occupancy, "tableInfoMapper", tableInfoMapper);
+        ReflectionTestUtils.setField(occupancy, "tableResolver", tableResolver);
+        ReflectionTestUtils.setField(occupancy, "tableInfoService", tableInfoService);
+        occupancy.reconcile();
+    }
+
+    @Test
+    void tableIsFreedAfterLastOpenOrder() {
+        create(10L, 1L);
+        create(11L, 1L);
+        occupancy.flush();
+        verify(tableInfoService).updateStatus(Collections.singletonList(1L), 1);
+
+        // 第一个订单取消，桌位仍有未结束订单
+        release(10L, OrderChangedEvent.Type.CANCEL);
+        occupancy.flush();
+        assertEquals(1, occupancy.getOpenOrders(1L));
+        assertEquals(1, occupancy.floor().get(0).getStatus());
+        verify(tableInfoService, never()).updateStatus(anyCollection(), eq(0));
+
+        // 重复事件不影响计数
+        release(10L, OrderChangedEvent.Type.CANCEL);
+        release(11L, OrderChangedEvent.Type.COMPLETE);
+        occupancy.flush();
+        assertEquals(0, occupancy.getOpenOrders(1L));
+        verify(tableInfoService).updateStatus(Collections.singletonList(1L), 0);
+    }
+
+    @Test
+    void changesWithinOneFlushAreBatched() {
+        create(10L, 1L);
+        create(11L, 2L);
+        // 同一写回周期内占用又释放的桌位不写回
+        create(12L, 3L);
+        release(12L, OrderChangedEvent.Type.EXPIRE);
+        occupancy.flush();
+
+        verify(tableInfoService, times(1)).updateStatus(anyCollection(), anyInt());
+        verify(tableInfoService).updateStatus(Arrays.asList(1L, 2L), 1);
+        assertEquals(0, occupancy.getDirtyCount());
+    }
+
+    @Test
+    void persistedStatusIsReadFromDatabase() {
+        // 桌位索引中仍是空闲，数据库已是使用中（如上次写回后索引未刷新），重新统计后应写回空闲
+        when(tableInfoMapper.selectList(any())).thenReturn(Arrays.asList(table(1L, 1), table(2L, 0)));
+        occupancy.reconcile();
+
+        verify(tableInfoService).updateStatus(Collections.singletonList(1L), 0);
+    }
+
+    @Test
+    void tableWithOrdersFromOtherInstanceIsNotFreed() {
+        create(10L, 1L);
+        occupancy.flush();
+        verify(tableInfoService).updateStatus(Collections.singletonList(1L), 1);
+
+        // 其他实例在该桌位下的订单尚未结束
+        Order foreign = new Order();
+        foreign.setId(20L);
+        foreign.setTableId("1");
+        when(orderMapper.selectList(any())).thenReturn(Collections.singletonList(foreign));
+        release(10L, OrderChangedEvent.Type.COMPLETE);
+        occupancy.flush();
+
+        verify(tableInfoService, never()).updateStatus(anyCollection(), eq(0));
+        assertEquals(1, occupancy.getOpenOrders(1L));
+
+        // 其他实例的订单结束后，重新统计释放桌位
+        when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
+        when(tableInfoMapper.selectList(any())).thenReturn(Arrays.asList(table(1L, 1), table(2L, 0)));
+        occupancy.reconcile();
+        verify(tableInfoService).updateStatus(Collections.singletonList(1L), 0);
+    }
+
+    private void create(Long orderId, Long tableId) {
+        occupancy.onOrderChanged(new OrderChangedEvent(orderId, OrderChangedEvent.Type.CREATE,
+                OrderStatusConstant.PENDING_PAYMENT, tableId));
+    }
+
+    private void release(Long orderId, OrderChangedEvent.Type type) {
+        occupancy.onOrderChanged(new OrderChangedEvent(orderId, type, OrderStatusConstant.CANCELLED));
+    }
+
+    private static TableInfo table(Long id, int status) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setId(id);
+        tableInfo.setName("桌" + id);
+        tableInfo.setStatus(status);
+        return tableInfo;
+    }
+}
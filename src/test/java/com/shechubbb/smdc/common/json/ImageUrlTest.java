@@ -0,0 +1,62 @@
+package com.shechubbb.smdc.common.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.config.ImageConfig.ImageUrlConverter;
+import com.shechubbb.smdc.entity.Dish;
+import com.shechubbb.smdc.vo.OrderDetailVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 图片地址序列化测试
+ * 验证对象中保持相对路径，只在序列化时输出完整URL，回传的本服务器URL还原为相对路径
+ */
+class ImageUrlTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ImageUrlConverter.class, () -> new ImageUrlConverter("https://img.example.com/", 8080));
+        context.refresh();
+        // 与Spring Boot自动配置一致，由SpringHandlerInstantiator创建并注入序列化器
+        objectMapper = Jackson2ObjectMapperBuilder.json().applicationContext(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void serializesAbsoluteUrlWithoutTouchingEntity() throws Exception {
+        Dish dish = new Dish();
+        dish.setImage("/upload/a.jpg");
+        OrderDetailVO detail = new OrderDetailVO();
+        detail.setDishImage("upload/b.jpg");
+
+        assertTrue(objectMapper.writeValueAsString(dish).contains("\"image\":\"https://img.example.com/upload/a.jpg\""));
+        assertTrue(objectMapper.writeValueAsString(detail).contains("\"dishImage\":\"https://img.example.com/upload/b.jpg\""));
+        assertEquals("/upload/a.jpg", dish.getImage());
+    }
+
+    @Test
+    void deserializesOwnUrlToRelativePath() throws Exception {
+        Dish own = objectMapper.readValue("{\"image\":\"https://img.example.com/upload/a.jpg\"}", Dish.class);
+        Dish external = objectMapper.readValue("{\"image\":\"https://other.example.com/a.jpg\"}", Dish.class);
+        Dish relative = objectMapper.readValue("{\"image\":\"/upload/c.jpg\"}", Dish.class);
+
+        assertEquals("/upload/a.jpg", own.getImage());
+        assertEquals("https://other.example.com/a.jpg", external.getImage());
+        assertEquals("/upload/c.jpg", relative.getImage());
+    }
+}
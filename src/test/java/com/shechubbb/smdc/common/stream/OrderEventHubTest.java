@@ -0,0 +1,160 @@
+package com.shechubbb.smdc.common.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.vo.OrderStreamEventVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单实时推送测试
+ * 验证按Last-Event-ID补发、缓冲区已覆盖时推送reset、慢连接队列写满时断开
+ */
+class OrderEventHubTest {
+
+    private OrderEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new OrderEventHub();
+        ReflectionTestUtils.setField(hub, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(hub, "bufferSize", 4);
+        ReflectionTestUtils.setField(hub, "clientQueueSize", 8);
+        ReflectionTestUtils.setField(hub, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(hub, "timeoutMillis", 60000L);
+        ReflectionTestUtils.setField(hub, "senderThreads", 1);
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    void missedEventsAreReplayedByLastEventId() throws Exception {
+        long first = publish(1L);
+        long second = publish(2L);
+        long third = publish(3L);
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        hub.subscribe(emitter, first);
+
+        List<String> events = emitter.await(2);
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).contains("id:" + second + "\nevent:order\n"));
+        assertTrue(events.get(1).contains("id:" + third + "\nevent:order\n"));
+        assertEquals(1, hub.getClientCount());
+
+        // 补发之后的实时事件照常推送
+        long fourth = publish(4L);
+        assertTrue(emitter.await(3).get(2).contains("id:" + fourth + "\nevent:order\n"));
+    }
+
+    @Test
+    void resetIsSentWhenLastEventIdFellOutOfBuffer() throws Exception {
+        long first = publish(1L);
+        long last = first;
+        // 缓冲区只保留最近4个事件
+        for (long orderId = 2; orderId <= 6; orderId++) {
+            last = publish(orderId);
+        }
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        hub.subscribe(emitter, first);
+
+        List<String> events = emitter.await(1);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).contains("id:" + last + "\nevent:reset\n"));
+    }
+
+    @Test
+    void slowClientIsDisconnectedWhenQueueOverflows() throws Exception {
+        ReflectionTestUtils.setField(hub, "clientQueueSize", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe(slow, null);
+        assertEquals(1, hub.getClientCount());
+
+        // 第一个事件阻塞在写出中，随后两个填满队列，第四个溢出
+        publish(1L);
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        publish(2L);
+        publish(3L);
+        assertFalse(slow.completed);
+        publish(4L);
+
+        assertTrue(slow.completed);
+        assertEquals(0, hub.getClientCount());
+        release.countDown();
+    }
+
+    private long publish(Long orderId) throws IOException {
+        OrderStreamEventVO payload = new OrderStreamEventVO();
+        payload.setType("CREATE");
+        payload.setOrderId(orderId);
+        hub.publish(payload);
+        return payload.getEventId();
+    }
+
+    /**
+     * 记录写出内容的SSE连接，release不为null时每次写出都等待放行
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                text.append(data.getData());
+            }
+            events.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        /**
+         * 等待写出线程发送至少count个事件
+         */
+        private List<String> await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return new ArrayList<>(events);
+        }
+    }
+}
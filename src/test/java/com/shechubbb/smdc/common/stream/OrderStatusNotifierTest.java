@@ -0,0 +1,72 @@
+package com.shechubbb.smdc.common.stream;
+
+import com.shechubbb.smdc.common.constant.OrderStatusConstant;
+import com.shechubbb.smdc.common.event.OrderChangedEvent;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.result.Result;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单状态长轮询测试
+ * 验证等待中的请求由状态变更唤醒，且重复等待不再查询数据库
+ */
+class OrderStatusNotifierTest {
+
+    private OrderStatusNotifier notifier;
+
+    private OrderMapper orderMapper;
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = mock(OrderMapper.class);
+        Order order = new Order();
+        order.setId(1L);
+        order.setUserId(11L);
+        order.setStatus(OrderStatusConstant.PENDING_PAYMENT);
+        when(orderMapper.selectById(1L)).thenReturn(order);
+
+        notifier = new OrderStatusNotifier();
+        ReflectionTestUtils.setField(notifier, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(notifier, "timeoutSeconds", 25L);
+        ReflectionTestUtils.setField(notifier, "cacheSize", 100);
+        ReflectionTestUtils.setField(notifier, "cacheTtlSeconds", 60L);
+        notifier.init();
+    }
+
+    @Test
+    void parkedRequestIsWokenByTransition() {
+        DeferredResult<Result<Integer>> first = notifier.await(1L, 11L, OrderStatusConstant.PENDING_PAYMENT);
+        DeferredResult<Result<Integer>> second = notifier.await(1L, 11L, OrderStatusConstant.PENDING_PAYMENT);
+        assertFalse(first.hasResult());
+        assertEquals(2, notifier.getWaiterCount());
+
+        notifier.onOrderChanged(new OrderChangedEvent(1L, OrderChangedEvent.Type.PAY, OrderStatusConstant.PAID));
+
+        assertEquals(OrderStatusConstant.PAID, ((Result<?>) first.getResult()).getData());
+        assertEquals(OrderStatusConstant.PAID, ((Result<?>) second.getResult()).getData());
+        // 状态已变化，再次等待旧状态立即返回
+        assertTrue(notifier.await(1L, 11L, OrderStatusConstant.PENDING_PAYMENT).hasResult());
+        verify(orderMapper, times(1)).selectById(1L);
+    }
+
+    @Test
+    void otherUsersOrderIsRejected() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> notifier.await(1L, 12L, OrderStatusConstant.PENDING_PAYMENT));
+        assertEquals("无权查看此订单", e.getMessage());
+    }
+}
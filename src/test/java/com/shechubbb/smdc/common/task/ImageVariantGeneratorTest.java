@@ -0,0 +1,92 @@
+package com.shechubbb.smdc.common.task;
+
+import com.shechubbb.smdc.common.event.CatalogChangedEvent;
+import com.shechubbb.smdc.vo.ImageVariantsVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 图片多尺寸版本生成测试
+ * 验证按宽度等比缩小且不放大，生成后通知菜单刷新，无法解码的文件不生成
+ */
+class ImageVariantGeneratorTest {
+
+    @TempDir
+    File uploadDir;
+
+    private ImageVariantGenerator generator;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        generator = new ImageVariantGenerator();
+        ReflectionTestUtils.setField(generator, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(generator, "uploadPath", uploadDir.getPath());
+        ReflectionTestUtils.setField(generator, "enabled", true);
+        ReflectionTestUtils.setField(generator, "threads", 1);
+        ReflectionTestUtils.setField(generator, "queueCapacity", 10);
+        ReflectionTestUtils.setField(generator, "maxPixels", 10_000_000L);
+    }
+
+    @Test
+    void variantsAreScaledDownByWidth() throws IOException {
+        BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", new File(uploadDir, "dish.png"));
+
+        generator.generate("/upload/dish.png");
+
+        assertSize(new File(uploadDir, "dish_120.jpg"), 120, 80);
+        assertSize(new File(uploadDir, "dish_375.jpg"), 375, 250);
+        // 原图不足750像素时不放大
+        assertSize(new File(uploadDir, "dish_750.jpg"), 600, 400);
+        assertSize(new File(uploadDir, "dish_placeholder.jpg"), ImageVariantGenerator.PLACEHOLDER_WIDTH, 11);
+
+        ImageVariantsVO variants = generator.getVariants("/upload/dish.png");
+        assertNotNull(variants);
+        assertEquals("/upload/dish_120.jpg", variants.getThumbnail());
+        assertEquals("/upload/dish_750.jpg", variants.getDetail());
+        assertTrue(variants.getPlaceholder().startsWith("data:image/jpeg;base64,"));
+        verify(eventPublisher).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    void unreadableImageHasNoVariants() throws IOException {
+        File broken = new File(uploadDir, "broken.jpg");
+        assertTrue(broken.createNewFile());
+
+        generator.generate("/upload/broken.jpg");
+
+        assertNull(generator.getVariants("/upload/broken.jpg"));
+        assertFalse(new File(uploadDir, "broken_120.jpg").exists());
+        // 非上传目录的图片不处理
+        assertNull(generator.getVariants("/upload/../broken.jpg"));
+        assertNull(generator.getVariants("https://img.example.com/dish.jpg"));
+        verify(eventPublisher, never()).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    private static void assertSize(File file, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(file);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
@@ -0,0 +1,161 @@
+package com.shechubbb.smdc.common.task;
+
+import com.shechubbb.smdc.mapper.DishMapper;
+import com.shechubbb.smdc.mapper.OrderDetailMapper;
+import com.shechubbb.smdc.mapper.ShopInfoMapper;
+import com.shechubbb.smdc.servlet.UploadFileServlet;
+import com.shechubbb.smdc.vo.UploadGcReportVO;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 未引用上传文件清理测试
+ * 验证原图与多尺寸版本整体判断引用和宽限期，演练不删除文件
+ */
+class UploadGarbageCollectorTest {
+
+    @TempDir
+    File uploadDir;
+
+    private UploadGarbageCollector collector;
+
+    private UploadFileServlet uploadFileServlet;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DishMapper dishMapper = mock(DishMapper.class);
+        OrderDetailMapper orderDetailMapper = mock(OrderDetailMapper.class);
+        ShopInfoMapper shopInfoMapper = mock(ShopInfoMapper.class);
+        doAnswer(rows("/upload/a.jpg", "https://img.example.com/dish.jpg")).when(dishMapper).streamImages(any());
+        // 升级前保存的绝对路径
+        doAnswer(rows("http://192.168.31.12:8080/upload/e.png")).when(orderDetailMapper).streamDishImages(any());
+        doAnswer(rows()).when(shopInfoMapper).streamLogos(any());
+        uploadFileServlet = mock(UploadFileServlet.class);
+
+        collector = new UploadGarbageCollector();
+        ReflectionTestUtils.setField(collector, "dishMapper", dishMapper);
+        ReflectionTestUtils.setField(collector, "orderDetailMapper", orderDetailMapper);
+        ReflectionTestUtils.setField(collector, "shopInfoMapper", shopInfoMapper);
+        ReflectionTestUtils.setField(collector, "imageVariantGenerator", mock(ImageVariantGenerator.class));
+        ReflectionTestUtils.setField(collector, "uploadFileServlet", uploadFileServlet);
+        ReflectionTestUtils.setField(collector, "uploadPath", uploadDir.getPath());
+        ReflectionTestUtils.setField(collector, "graceHours", 24L);
+        ReflectionTestUtils.setField(collector, "deletesPerSecond", 0);
+        ReflectionTestUtils.setField(collector, "sampleSize", 10);
+
+        for (String name : new String[]{"a.jpg", "a_120.jpg", "a_placeholder.jpg", "e.png",
+                "b.jpg", "b_120.jpg", "d.jpg", ".abc.tmp"}) {
+            createFile(name, 48);
+        }
+        // 新上传尚未保存的图片
+        createFile("c.jpg", 0);
+        // 重复上传刷新了原图的修改时间，旧的多尺寸版本一并保留
+        createFile("d_750.jpg", 48);
+        Files.setLastModifiedTime(new File(uploadDir, "d.jpg").toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    @Test
+    void dryRunReportsWithoutDeleting() {
+        UploadGcReportVO report = collector.run(true);
+
+        assertTrue(report.getDryRun());
+        assertEquals(2, report.getReferencedCount());
+        assertEquals(10, report.getScannedFiles());
+        assertEquals(3, report.getOrphanFiles());
+        assertEquals(0, report.getDeletedFiles());
+        assertEquals(10, uploadDir.list().length);
+    }
+
+    @Test
+    void unreferencedFilesPastGraceAreDeleted() {
+        UploadGcReportVO report = collector.run(false);
+
+        assertEquals(3, report.getDeletedFiles());
+        assertFalse(new File(uploadDir, "b.jpg").exists());
+        assertFalse(new File(uploadDir, "b_120.jpg").exists());
+        assertFalse(new File(uploadDir, ".abc.tmp").exists());
+        assertTrue(new File(uploadDir, "a_placeholder.jpg").exists());
+        assertTrue(new File(uploadDir, "c.jpg").exists());
+        assertTrue(new File(uploadDir, "d_750.jpg").exists());
+        assertTrue(new File(uploadDir, "e.png").exists());
+        verify(uploadFileServlet).evict("b_120.jpg");
+    }
+
+    @Test
+    void fileReuploadedDuringSweepIsKept() throws IOException {
+        createFile("x.jpg", 48);
+        createFile("y.jpg", 48);
+        // 第一次删除时重新上传x和y，模拟限速删除期间的重复上传
+        AtomicReference<String> first = new AtomicReference<>();
+        doAnswer(invocation -> {
+            if (first.compareAndSet(null, invocation.getArgument(0))) {
+                for (String name : new String[]{"x.jpg", "y.jpg"}) {
+                    File file = new File(uploadDir, name);
+                    if (file.exists()) {
+                        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+                    }
+                }
+            }
+            return null;
+        }).when(uploadFileServlet).evict(anyString());
+
+        collector.run(false);
+
+        assertFalse(new File(uploadDir, first.get()).exists());
+        for (String name : new String[]{"x.jpg", "y.jpg"}) {
+            if (!name.equals(first.get())) {
+                assertTrue(new File(uploadDir, name).exists(), name);
+            }
+        }
+    }
+
+    @Test
+    void fileKeyStripsVariantSuffix() {
+        assertEquals("abc", UploadGarbageCollector.fileKey("abc_375.jpg"));
+        assertEquals("abc", UploadGarbageCollector.fileKey("abc_placeholder.jpg"));
+        assertEquals("abc_376", UploadGarbageCollector.fileKey("abc_376.jpg"));
+        assertEquals("abc", UploadGarbageCollector.referencedKey("/upload/abc.webp"));
+        assertEquals(null, UploadGarbageCollector.referencedKey("/images/default_dish.png"));
+    }
+
+    private void createFile(String name, long ageHours) throws IOException {
+        File file = new File(uploadDir, name);
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(file.toPath(),
+                FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(ageHours)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<Void> rows(String... values) {
+        return invocation -> {
+            ResultHandler<String> handler = invocation.getArgument(0);
+            DefaultResultContext<String> context = new DefaultResultContext<>();
+            for (String value : values) {
+                context.nextResultObject(value);
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+}
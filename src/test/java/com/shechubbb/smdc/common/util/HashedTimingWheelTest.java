@@ -0,0 +1,63 @@
+package com.shechubbb.smdc.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 哈希时间轮测试
+ */
+class HashedTimingWheelTest {
+
+    private final List<Long> expired = new CopyOnWriteArrayList<>();
+
+    // 槽位数小于延迟刻度数，覆盖多圈的情况
+    private final HashedTimingWheel<Long> wheel = new HashedTimingWheel<>("test-wheel", 10, 4, expired::addAll);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void expiresInDeadlineOrderAndSkipsCancelled() throws InterruptedException {
+        wheel.schedule(3L, 150);
+        HashedTimingWheel.Timeout<Long> cancelled = wheel.schedule(2L, 100);
+        wheel.schedule(1L, 0);
+        assertTrue(cancelled.cancel());
+        assertEquals(2, wheel.size());
+
+        await(2);
+
+        assertEquals(Arrays.asList(1L, 3L), expired);
+        assertEquals(0, wheel.size());
+        assertFalse(cancelled.cancel());
+    }
+
+    @Test
+    void neverExpiresEarly() throws InterruptedException {
+        long start = System.nanoTime();
+        wheel.schedule(1L, 120);
+
+        await(1);
+
+        assertEquals(Collections.singletonList(1L), expired);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(120));
+    }
+
+    private void await(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (expired.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
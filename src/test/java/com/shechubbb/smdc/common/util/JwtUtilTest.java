@@ -0,0 +1,108 @@
+package com.shechubbb.smdc.common.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * JWT工具类测试
+ * 验证签名错误和过期的令牌被拒绝，已验证令牌的缓存不超过令牌过期时间
+ */
+class JwtUtilTest {
+
+    private static final String BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil("testSecretKey123456789012345678901234567890", 3600);
+    }
+
+    @Test
+    void validTokenIsParsed() {
+        String token = jwtUtil.createToken(1L, "张三", JwtUtil.USER_TYPE_USER);
+
+        JwtClaims claims = jwtUtil.parse(token);
+        assertNotNull(claims);
+        assertEquals(Long.valueOf(1L), claims.getUserId());
+        assertEquals("张三", claims.getUsername());
+        assertEquals(JwtUtil.USER_TYPE_USER, claims.getUserType());
+    }
+
+    @Test
+    void tokenWithBadSignatureIsRejected() {
+        String token = jwtUtil.createToken(1L, "张三", JwtUtil.USER_TYPE_USER);
+        int dot = token.lastIndexOf('.');
+        String signature = token.substring(dot + 1);
+
+        // 其它密钥签发的令牌
+        String forged = jwtUtil("otherSecretKey12345678901234567890123456789", 3600)
+                .createToken(1L, "张三", JwtUtil.USER_TYPE_USER);
+        assertNull(jwtUtil.parse(forged));
+
+        // 修改签名首字符
+        assertNull(jwtUtil.parse(token.substring(0, dot + 1) + replaceChar(signature, 0)));
+
+        // 只改动签名末位多余比特的字符串解码结果与原签名相同，也必须拒绝
+        int last = signature.length() - 1;
+        char sameBytes = BASE64_URL.charAt(BASE64_URL.indexOf(signature.charAt(last)) ^ 1);
+        assertNull(jwtUtil.parse(token.substring(0, dot + 1) + signature.substring(0, last) + sameBytes));
+
+        // 去掉签名
+        assertNull(jwtUtil.parse(token.substring(0, dot + 1)));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = jwtUtil("testSecretKey123456789012345678901234567890", -10)
+                .createToken(1L, "张三", JwtUtil.USER_TYPE_USER);
+
+        assertNull(jwtUtil.parse(token));
+        assertEquals(0, jwtUtil.getClaimsCache().size());
+    }
+
+    @Test
+    void cachedClaimsExpireNoLaterThanToken() {
+        ExpiringCache<String, JwtClaims> cache = spy(new ExpiringCache<>(100, TimeUnit.HOURS.toMillis(1)));
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", cache);
+        // 令牌60秒后过期，短于缓存存活时间
+        JwtUtil shortLived = jwtUtil("testSecretKey123456789012345678901234567890", 60);
+        String token = shortLived.createToken(1L, "张三", JwtUtil.USER_TYPE_USER);
+
+        JwtClaims claims = jwtUtil.parse(token);
+        assertNotNull(claims);
+
+        ArgumentCaptor<Long> expireAt = ArgumentCaptor.forClass(Long.class);
+        verify(cache).putUntil(eq(token), any(JwtClaims.class), expireAt.capture());
+        assertEquals(TimeUnit.SECONDS.toMillis(claims.getExpiresAt()), expireAt.getValue().longValue());
+        assertTrue(expireAt.getValue() <= System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60));
+    }
+
+    private static JwtUtil jwtUtil(String secret, long expiration) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtlSeconds", 3600L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static String replaceChar(String value, int index) {
+        char replacement = value.charAt(index) == 'A' ? 'B' : 'A';
+        return value.substring(0, index) + replacement + value.substring(index + 1);
+    }
+}
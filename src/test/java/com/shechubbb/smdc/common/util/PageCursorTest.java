@@ -0,0 +1,54 @@
+package com.shechubbb.smdc.common.util;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.entity.Order;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 游标分页标记测试
+ */
+class PageCursorTest {
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Order.class);
+    }
+
+    @Test
+    void appliesKeysetConditionAfterDecoding() {
+        String cursor = PageCursor.encode(LocalDateTime.of(2024, 5, 1, 12, 30, 15), 42L);
+
+        LambdaQueryWrapper<Order> wrapper = new LambdaQueryWrapper<>();
+        PageCursor.apply(wrapper, Order::getCreateTime, Order::getId, PageCursor.decode(cursor));
+
+        String sql = wrapper.getTargetSql();
+        assertTrue(sql.contains("create_time < ?"), sql);
+        assertTrue(sql.contains("id < ?"), sql);
+        assertTrue(sql.contains("create_time IS NULL"), sql);
+        assertTrue(wrapper.getSqlSegment().endsWith("ORDER BY create_time DESC,id DESC"), wrapper.getSqlSegment());
+        assertTrue(wrapper.getParamNameValuePairs().containsValue(LocalDateTime.of(2024, 5, 1, 12, 30, 15)));
+        assertTrue(wrapper.getParamNameValuePairs().containsValue(42L));
+    }
+
+    @Test
+    void blankCursorStartsFromFirstPageAndGarbageIsRejected() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        BusinessException e = assertThrows(BusinessException.class, () -> PageCursor.decode("not-a-cursor"));
+        assertEquals("无效的分页游标", e.getMessage());
+        assertEquals(1, PageCursor.limitPageSize(0));
+        assertEquals(PageCursor.MAX_PAGE_SIZE, PageCursor.limitPageSize(10000));
+    }
+}
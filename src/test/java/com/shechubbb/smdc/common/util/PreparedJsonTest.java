@@ -0,0 +1,95 @@
+package com.shechubbb.smdc.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shechubbb.smdc.common.result.Result;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预序列化响应体测试
+ */
+class PreparedJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void rawBytesMatchJacksonOutput() throws IOException {
+        Result<?> result = Result.success(Arrays.asList("宫保鸡丁", "鱼香肉丝"));
+        PreparedJson json = PreparedJson.of(objectMapper, result, "menu");
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(result), json.getRaw());
+        assertArrayEquals(json.getRaw(), gunzip(json.getGzip()));
+    }
+
+    @Test
+    void gzipVariantHasOwnETagAndHeaders() {
+        PreparedJson json = PreparedJson.of(objectMapper, Result.success(), "menu");
+        String eTag = json.getETag();
+
+        ResponseEntity<byte[]> gzip = json.toResponseEntity("gzip, deflate, br");
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(eTag.substring(0, eTag.length() - 1) + "-gz\"", gzip.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzip.getHeaders().getFirst(HttpHeaders.VARY));
+        assertArrayEquals(json.getGzip(), gzip.getBody());
+
+        ResponseEntity<byte[]> identity = json.toResponseEntity(null);
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(eTag, identity.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, identity.getHeaders().getFirst(HttpHeaders.VARY));
+        assertArrayEquals(json.getRaw(), identity.getBody());
+    }
+
+    @Test
+    void eTagIsDerivedFromContent() {
+        PreparedJson first = PreparedJson.of(objectMapper, Result.success(Arrays.asList("宫保鸡丁")), "menu");
+        PreparedJson rebuilt = PreparedJson.of(objectMapper, Result.success(Arrays.asList("宫保鸡丁")), "menu");
+        PreparedJson changed = PreparedJson.of(objectMapper, Result.success(Arrays.asList("鱼香肉丝")), "menu");
+
+        // 内容不变时重建（或其他实例构建）得到相同的ETag
+        assertEquals(first.getETag(), rebuilt.getETag());
+        assertNotEquals(first.getETag(), changed.getETag());
+        assertTrue(first.getETag().startsWith("\"menu-") && first.getETag().endsWith("\""));
+    }
+
+    @Test
+    void acceptEncodingParsing() {
+        assertTrue(PreparedJson.acceptsGzip("gzip"));
+        assertTrue(PreparedJson.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(PreparedJson.acceptsGzip("*"));
+        assertFalse(PreparedJson.acceptsGzip(""));
+        assertFalse(PreparedJson.acceptsGzip("identity"));
+        assertFalse(PreparedJson.acceptsGzip("gzip;q=0"));
+        assertFalse(PreparedJson.acceptsGzip("br, gzip;q=0.0"));
+        // 显式拒绝gzip时不按*接受
+        assertFalse(PreparedJson.acceptsGzip("gzip;q=0, *"));
+        assertFalse(PreparedJson.acceptsGzip("*, gzip;q=0"));
+        assertFalse(PreparedJson.acceptsGzip("br, *;q=0"));
+        assertTrue(PreparedJson.acceptsGzip("br, *;q=0.1"));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.shechubbb.smdc.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单号生成器测试
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    @Test
+    void concurrentGenerationHasNoDuplicates() throws Exception {
+        final int threads = 8;
+        final int perThread = 250_000;
+        final SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7, ZONE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                String[] numbers = new String[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    numbers[i] = generator.nextNumber();
+                }
+                return numbers;
+            }));
+        }
+        start.countDown();
+
+        String[] all = new String[threads * perThread];
+        int offset = 0;
+        for (Future<String[]> future : futures) {
+            String[] numbers = future.get(2, TimeUnit.MINUTES);
+            // 单个线程内严格递增
+            for (int i = 1; i < numbers.length; i++) {
+                assertTrue(numbers[i - 1].compareTo(numbers[i]) < 0, numbers[i - 1] + " >= " + numbers[i]);
+            }
+            System.arraycopy(numbers, 0, all, offset, numbers.length);
+            offset += numbers.length;
+        }
+        executor.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i]);
+        }
+        assertEquals(23, all[0].length());
+        assertEquals("007", all[0].substring(14, 17));
+    }
+
+    @Test
+    void borrowsNextSecondWhenSequenceExhausted() {
+        SnowflakeOrderNumberGenerator generator = new FixedClockGenerator(1, 1_700_000_000L);
+        String first = generator.nextNumber();
+        String last = first;
+        for (long i = 1; i <= SnowflakeOrderNumberGenerator.MAX_SEQUENCE; i++) {
+            String next = generator.nextNumber();
+            assertTrue(last.compareTo(next) < 0);
+            last = next;
+        }
+        assertEquals("20231115061320001000000", first);
+        assertEquals("20231115061321001000000", last);
+    }
+
+    @Test
+    void staysMonotonicWhenClockGoesBackwards() {
+        FixedClockGenerator generator = new FixedClockGenerator(2, 1_700_000_010L);
+        String before = generator.nextNumber();
+        generator.second = 1_700_000_000L;
+        String after = generator.nextNumber();
+        assertTrue(before.compareTo(after) < 0);
+        assertEquals(before.substring(0, 14), after.substring(0, 14));
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        String a = new FixedClockGenerator(1, 1_700_000_000L).nextNumber();
+        String b = new FixedClockGenerator(2, 1_700_000_000L).nextNumber();
+        assertNotEquals(a, b);
+        assertEquals(a.substring(0, 14), b.substring(0, 14));
+    }
+
+    @Test
+    void rejectsInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID));
+    }
+
+    /**
+     * 固定时钟的生成器
+     */
+    private static class FixedClockGenerator extends SnowflakeOrderNumberGenerator {
+        private volatile long second;
+
+        FixedClockGenerator(int nodeId, long second) {
+            super(nodeId, ZONE);
+            this.second = second;
+        }
+
+        @Override
+        protected long currentSecond() {
+            return second;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.shechubbb.smdc.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.shechubbb.smdc.common.cache.TableResolver;
+import com.shechubbb.smdc.common.constant.OrderTransition;
+import com.shechubbb.smdc.common.constant.PayMethodConstant;
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.util.PageCursor;
+import com.shechubbb.smdc.entity.Order;
+import com.shechubbb.smdc.entity.TableInfo;
+import com.shechubbb.smdc.entity.User;
+import com.shechubbb.smdc.mapper.OrderMapper;
+import com.shechubbb.smdc.service.UserService;
+import com.shechubbb.smdc.vo.CursorPage;
+import com.shechubbb.smdc.vo.OrderVO;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单服务分页查询测试
+ * 通过统计Mapper/Service调用次数验证分页转换的查询次数不随页大小增长，
+ * 以及订单状态流转只需一条条件更新语句
+ */
+class OrderServiceImplTest {
+
+    private OrderServiceImpl orderService;
+
+    private OrderMapper orderMapper;
+
+    private UserService userService;
+
+    private TableResolver tableResolver;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper解析列名依赖实体元数据
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Order.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = mock(OrderMapper.class);
+        userService = mock(UserService.class);
+        tableResolver = mock(TableResolver.class);
+
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "baseMapper", orderMapper);
+        ReflectionTestUtils.setField(orderService, "userService", userService);
+        ReflectionTestUtils.setField(orderService, "tableResolver", tableResolver);
+        ReflectionTestUtils.setField(orderService, "eventPublisher", mock(ApplicationEventPublisher.class));
+
+        when(userService.listByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> {
+                User user = new User();
+                user.setId((Long) id);
+                user.setNickName("用户" + id);
+                return user;
+            }).collect(Collectors.toList());
+        });
+        when(tableResolver.resolve(anyString())).thenAnswer(invocation -> {
+            String reference = invocation.getArgument(0);
+            if ("UNKNOWN".equals(reference)) {
+                return null;
+            }
+            return Character.isDigit(reference.charAt(0))
+                    ? table(Long.valueOf(reference), "C" + reference) : table(100L, reference);
+        });
+    }
+
+    @Test
+    void adminPageStatementCountIndependentOfPageSize() {
+        int small = countStatementsForPage(2);
+        int large = countStatementsForPage(50);
+
+        assertEquals(small, large);
+        // 分页查询 + 用户，桌位从内存索引解析
+        assertTrue(large <= 2, "statements: " + large);
+    }
+
+    @Test
+    void adminPageResolvesUsersAndTables() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(order(1L, 11L, "5"));
+        orders.add(order(2L, 12L, "A001"));
+        orders.add(order(3L, 11L, "UNKNOWN"));
+        stubPage(orders);
+
+        List<OrderVO> records = orderService.adminPage(1, 10, null, null).getRecords();
+
+        assertEquals("用户11", records.get(0).getUserName());
+        assertEquals("桌5", records.get(0).getTableName());
+        assertEquals("C5", records.get(0).getTableCode());
+        assertEquals("用户12", records.get(1).getUserName());
+        assertEquals("A001", records.get(1).getTableCode());
+        assertEquals("桌号UNKNOWN", records.get(2).getTableName());
+        assertEquals("UNKNOWN", records.get(2).getTableCode());
+    }
+
+    @Test
+    void snapshottedOrdersNeedNoLookups() {
+        List<Order> orders = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            Order order = order(i, 10 + i, String.valueOf(i));
+            order.setUserName("用户" + (10 + i));
+            order.setTableName("桌" + i);
+            order.setTableCode("C" + i);
+            orders.add(order);
+        }
+        stubPage(orders);
+
+        List<OrderVO> records = orderService.adminPage(1, 10, null, null).getRecords();
+
+        assertEquals("用户11", records.get(0).getUserName());
+        assertEquals("桌1", records.get(0).getTableName());
+        assertEquals("C1", records.get(0).getTableCode());
+        // 只有分页查询，不查询用户也不解析桌位
+        assertEquals(0, mockingDetails(userService).getInvocations().size());
+        assertEquals(0, mockingDetails(tableResolver).getInvocations().size());
+    }
+
+    @Test
+    void snapshotOverridesClientFields() {
+        Order order = order(1L, 11L, "UNKNOWN");
+        order.setTableName("伪造桌位");
+        order.setUserName("伪造昵称");
+        User user = new User();
+        user.setId(11L);
+
+        OrderServiceImpl.snapshot(order, null, "UNKNOWN", user);
+
+        // 桌位无法解析时保留"桌号"前缀，与历史订单的显示格式一致
+        assertEquals("桌号UNKNOWN", order.getTableName());
+        assertEquals("UNKNOWN", order.getTableCode());
+        assertEquals("", order.getUserName());
+    }
+
+    @Test
+    void scrollFetchesOneExtraRowWithoutCount() {
+        List<Order> orders = new ArrayList<>();
+        for (long i = 1; i <= 4; i++) {
+            Order order = order(i, 11L, String.valueOf(i));
+            order.setCreateTime(LocalDateTime.of(2024, 5, 1, 12, 0).minusMinutes(i));
+            orders.add(order);
+        }
+        doAnswer(invocation -> {
+            Page<Order> page = invocation.getArgument(0);
+            assertEquals(4, page.getSize());
+            assertFalse(page.searchCount());
+            page.setRecords(orders);
+            return page;
+        }).when(orderMapper).selectPage(any(), any());
+
+        CursorPage<OrderVO> cursorPage = orderService.userScroll(11L, null, null, 3, false);
+
+        assertEquals(3, cursorPage.getRecords().size());
+        assertTrue(cursorPage.getHasMore());
+        assertEquals(PageCursor.encode(orders.get(2).getCreateTime(), 3L), cursorPage.getNextCursor());
+        assertNull(cursorPage.getTotal());
+        // 只有一次分页查询，没有COUNT
+        assertEquals(1, mockingDetails(orderMapper).getInvocations().size());
+    }
+
+    @Test
+    void payOrderIsSingleConditionalUpdate() {
+        when(orderMapper.update(isNull(), any())).thenReturn(1);
+
+        orderService.payOrder(1L, PayMethodConstant.WECHAT);
+
+        assertEquals(1, mockingDetails(orderMapper).getInvocations().size());
+    }
+
+    @Test
+    void payOrderConflictIsRejected() {
+        when(orderMapper.update(isNull(), any())).thenReturn(0);
+        when(orderMapper.selectById(1L)).thenReturn(order(1L, 11L, null));
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> orderService.payOrder(1L, PayMethodConstant.WECHAT));
+        assertEquals(OrderTransition.PAY.getConflictMessage(), e.getMessage());
+    }
+
+    @Test
+    void payMissingOrderIsRejected() {
+        when(orderMapper.update(isNull(), any())).thenReturn(0);
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> orderService.payOrder(1L, PayMethodConstant.WECHAT));
+        assertEquals("订单不存在", e.getMessage());
+    }
+
+    private int countStatementsForPage(int pageSize) {
+        List<Order> orders = new ArrayList<>();
+        for (long i = 1; i <= pageSize; i++) {
+            // 数字桌位ID与桌位编码交替出现
+            orders.add(order(i, 1000 + i, i % 2 == 0 ? String.valueOf(i) : "T" + i));
+        }
+        stubPage(orders);
+
+        int before = invocationCount();
+        Page<OrderVO> page = orderService.adminPage(1, pageSize, null, null);
+        assertEquals(pageSize, page.getRecords().size());
+        return invocationCount() - before;
+    }
+
+    private void stubPage(List<Order> orders) {
+        doAnswer(invocation -> {
+            Page<Order> page = invocation.getArgument(0);
+            page.setRecords(orders);
+            page.setTotal(orders.size());
+            return page;
+        }).when(orderMapper).selectPage(any(), any());
+    }
+
+    private int invocationCount() {
+        return mockingDetails(orderMapper).getInvocations().size()
+                + mockingDetails(userService).getInvocations().size();
+    }
+
+    private static Order order(Long id, Long userId, String tableId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId(userId);
+        order.setTableId(tableId);
+        return order;
+    }
+
+    private static TableInfo table(Long id, String code) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setId(id);
+        tableInfo.setCode(code);
+        tableInfo.setName("桌" + id);
+        return tableInfo;
+    }
+}
@@ -0,0 +1,61 @@
+package com.shechubbb.smdc.service.impl;
+
+import com.shechubbb.smdc.common.exception.BusinessException;
+import com.shechubbb.smdc.common.task.ImageVariantGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 文件上传服务测试
+ * 验证文件按内容的SHA-256命名，相同内容只保存一份，且不残留临时文件
+ */
+class UploadServiceImplTest {
+
+    @TempDir
+    File uploadDir;
+
+    private UploadServiceImpl uploadService;
+
+    @BeforeEach
+    void setUp() {
+        uploadService = new UploadServiceImpl();
+        ReflectionTestUtils.setField(uploadService, "uploadPath", uploadDir.getPath());
+        ReflectionTestUtils.setField(uploadService, "imageVariantGenerator", mock(ImageVariantGenerator.class));
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() {
+        byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+        String first = uploadService.saveImage(new MockMultipartFile("file", "红烧肉.JPEG", "image/jpeg", content));
+        String second = uploadService.saveImage(new MockMultipartFile("file", "copy.jpg", "image/jpeg", content));
+        String other = uploadService.saveImage(new MockMultipartFile("file", "other.jpg", "image/jpeg",
+                "abd".getBytes(StandardCharsets.UTF_8)));
+
+        // SHA-256("abc")
+        assertEquals("/upload/ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.jpg", first);
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertArrayEquals(new String[]{"ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad.jpg"},
+                uploadDir.list((dir, name) -> name.startsWith("ba78") || name.endsWith(".tmp")));
+        assertEquals(2, uploadDir.list().length);
+    }
+
+    @Test
+    void unsupportedSuffixIsRejected() {
+        MockMultipartFile file = new MockMultipartFile("file", "index.html", "text/html", new byte[]{1});
+        assertThrows(BusinessException.class, () -> uploadService.saveImage(file));
+        assertEquals(0, uploadDir.list().length);
+    }
+}
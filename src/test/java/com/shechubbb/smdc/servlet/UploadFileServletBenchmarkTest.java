@@ -0,0 +1,143 @@
+package com.shechubbb.smdc.servlet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 上传文件访问吞吐量对比：独立Servlet与原Spring MVC资源处理器
+ * 在Servlet层直接调用两者，不启动应用和数据库；sendfile由Tomcat完成，不在此计入。
+ * 默认跳过，运行方式：mvn test -Dtest=UploadFileServletBenchmarkTest -Dsmdc.benchmark=true
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "smdc.benchmark", matches = "true")
+class UploadFileServletBenchmarkTest {
+
+    private static final int THREADS = 8;
+
+    private static final int WARMUP_REQUESTS = 2000;
+
+    @TempDir
+    static File uploadDir;
+
+    private static byte[] small;
+
+    private static byte[] large;
+
+    private static UploadFileServlet servlet;
+
+    private static ResourceHttpRequestHandler legacy;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        Random random = new Random(1);
+        small = new byte[20 * 1024];
+        large = new byte[2 * 1024 * 1024];
+        random.nextBytes(small);
+        random.nextBytes(large);
+        Files.write(new File(uploadDir, "small.jpg").toPath(), small);
+        Files.write(new File(uploadDir, "large.jpg").toPath(), large);
+
+        servlet = new UploadFileServlet();
+        ReflectionTestUtils.setField(servlet, "uploadPath", uploadDir.getPath());
+        ReflectionTestUtils.setField(servlet, "hotCacheMaxEntries", 1024);
+        ReflectionTestUtils.setField(servlet, "hotCacheMaxFileBytes", 64 * 1024);
+        ReflectionTestUtils.setField(servlet, "hotCacheTtlMinutes", 10L);
+        ReflectionTestUtils.setField(servlet, "sendfileMinBytes", 48L * 1024);
+        servlet.initCache();
+
+        // 原有的资源处理器映射，作为对比基准
+        legacy = new ResourceHttpRequestHandler();
+        legacy.setLocations(Collections.singletonList(new FileSystemResource(uploadDir.getPath() + "/")));
+        legacy.setServletContext(new MockServletContext());
+        legacy.afterPropertiesSet();
+    }
+
+    @Test
+    void compareThroughput() throws Exception {
+        run("small.jpg", small, 200000);
+        run("large.jpg", large, 2000);
+    }
+
+    private void run(String fileName, byte[] expected, int requests) throws Exception {
+        assertArrayEquals(expected, fetchLegacy(fileName));
+        assertArrayEquals(expected, fetchServlet(fileName));
+
+        measure(() -> fetchLegacy(fileName), expected.length, WARMUP_REQUESTS);
+        measure(() -> fetchServlet(fileName), expected.length, WARMUP_REQUESTS);
+        double legacyRate = measure(() -> fetchLegacy(fileName), expected.length, requests);
+        double currentRate = measure(() -> fetchServlet(fileName), expected.length, requests);
+        log.info("{}（{}字节）：Spring MVC资源处理器 {} req/s，独立Servlet {} req/s，提升 {} 倍",
+                fileName, expected.length, Math.round(legacyRate), Math.round(currentRate),
+                String.format("%.2f", currentRate / legacyRate));
+    }
+
+    /**
+     * 多线程持续请求，返回每秒请求数
+     */
+    private static double measure(Fetch fetch, int length, int requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requests / THREADS; i++) {
+                        assertEquals(length, fetch.get().length);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return requests / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] fetchServlet(String fileName) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/upload/" + fileName);
+        request.setServletPath("/upload");
+        request.setPathInfo("/" + fileName);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+        return response.getContentAsByteArray();
+    }
+
+    private static byte[] fetchLegacy(String fileName) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/upload/" + fileName);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, fileName);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        legacy.handleRequest(request, response);
+        return response.getContentAsByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Fetch {
+        byte[] get() throws Exception;
+    }
+}
@@ -0,0 +1,133 @@
+package com.shechubbb.smdc.servlet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 上传文件访问测试
+ * 验证ETag/304、单段Range、小文件缓存和sendfile交接
+ */
+class UploadFileServletTest {
+
+    @TempDir
+    File uploadDir;
+
+    private UploadFileServlet servlet;
+
+    private byte[] small;
+
+    private byte[] large;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servlet = new UploadFileServlet();
+        ReflectionTestUtils.setField(servlet, "uploadPath", uploadDir.getPath());
+        ReflectionTestUtils.setField(servlet, "hotCacheMaxEntries", 16);
+        ReflectionTestUtils.setField(servlet, "hotCacheMaxFileBytes", 1024);
+        ReflectionTestUtils.setField(servlet, "hotCacheTtlMinutes", 1L);
+        ReflectionTestUtils.setField(servlet, "sendfileMinBytes", 4096L);
+        servlet.initCache();
+
+        small = new byte[100];
+        large = new byte[10000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        System.arraycopy(large, 0, small, 0, small.length);
+        Files.write(new File(uploadDir, "small.jpg").toPath(), small);
+        Files.write(new File(uploadDir, "large.jpg").toPath(), large);
+    }
+
+    @Test
+    void smallFileIsCachedAndRevalidatedByEtag() throws IOException {
+        MockHttpServletResponse first = get("/small.jpg", null, null);
+        assertEquals(200, first.getStatus());
+        assertEquals("\"small.jpg\"", first.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", first.getHeader("Cache-Control"));
+        assertEquals("image/jpeg", first.getContentType());
+        assertArrayEquals(small, first.getContentAsByteArray());
+
+        // 删除后仍从缓存返回，说明未访问文件系统
+        Files.delete(new File(uploadDir, "small.jpg").toPath());
+        MockHttpServletResponse range = get("/small.jpg", "bytes=-10", null);
+        assertEquals(206, range.getStatus());
+        assertEquals("bytes 90-99/100", range.getHeader("Content-Range"));
+        assertEquals(10, range.getContentAsByteArray().length);
+        assertEquals(1, servlet.getHotCache().getHitCount());
+
+        MockHttpServletResponse notModified = get("/small.jpg", null, "\"other\", \"small.jpg\"");
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+    }
+
+    @Test
+    void largeFileIsTransferredByRange() throws IOException {
+        MockHttpServletResponse range = get("/large.jpg", "bytes=5000-5009", null);
+        assertEquals(206, range.getStatus());
+        assertEquals("bytes 5000-5009/10000", range.getHeader("Content-Range"));
+        byte[] expected = new byte[10];
+        System.arraycopy(large, 5000, expected, 0, expected.length);
+        assertArrayEquals(expected, range.getContentAsByteArray());
+        assertEquals(0, servlet.getHotCache().size());
+
+        assertEquals(416, get("/large.jpg", "bytes=10000-", null).getStatus());
+        // 多段Range返回完整文件
+        assertEquals(large.length, get("/large.jpg", "bytes=0-1,5-6", null).getContentAsByteArray().length);
+        assertEquals(404, get("/missing.jpg", null, null).getStatus());
+        assertEquals(404, get("/../large.jpg", null, null).getStatus());
+    }
+
+    @Test
+    void tomcatSendfileIsUsedWhenSupported() throws IOException {
+        MockHttpServletRequest request = request("/large.jpg");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10000, response.getContentLengthLong());
+        assertEquals(new File(uploadDir, "large.jpg").getAbsolutePath(),
+                request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10000L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        // 小文件不使用sendfile
+        MockHttpServletRequest smallRequest = request("/small.jpg");
+        smallRequest.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        servlet.doGet(smallRequest, new MockHttpServletResponse());
+        assertNull(smallRequest.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    private MockHttpServletResponse get(String pathInfo, String range, String ifNoneMatch) throws IOException {
+        MockHttpServletRequest request = request(pathInfo);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.doGet(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String pathInfo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/upload" + pathInfo);
+        request.setServletPath("/upload");
+        request.setPathInfo(pathInfo);
+        return request;
+    }
+}
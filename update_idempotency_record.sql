@@ -0,0 +1,14 @@
+-- 下单、支付幂等键：同一用户、同一接口、同一幂等键只执行一次，多实例部署时由唯一索引兜底
+CREATE TABLE IF NOT EXISTS `idempotency_record` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键',
+  `user_id` bigint(20) NOT NULL COMMENT '用户id',
+  `scope` varchar(32) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '接口范围',
+  `idem_key` varchar(64) COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '幂等键',
+  `fingerprint` char(64) COLLATE utf8mb4_unicode_ci DEFAULT NULL COMMENT '请求体指纹',
+  `status` tinyint(4) NOT NULL DEFAULT '0' COMMENT '状态，0处理中，1已完成',
+  `response` text COLLATE utf8mb4_unicode_ci COMMENT '首次请求的响应结果',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_user_scope_key` (`user_id`, `scope`, `idem_key`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='幂等请求记录表';
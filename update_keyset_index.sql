@@ -0,0 +1,9 @@
+-- 游标分页索引：订单按（创建时间, ID）、菜品按（更新时间, ID）倒序读取，避免OFFSET扫描
+-- 用户订单索引以user_id开头，可替代原有的idx_user_id
+ALTER TABLE `order`
+DROP INDEX idx_user_id,
+ADD INDEX idx_user_create_time_id (user_id, create_time, id),
+ADD INDEX idx_create_time_id (create_time, id);
+
+ALTER TABLE dish
+ADD INDEX idx_update_time_id (update_time, id);
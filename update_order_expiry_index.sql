@@ -0,0 +1,3 @@
+-- 待付款订单超时取消：启动时按状态加载待付款订单，避免全表扫描
+ALTER TABLE `order`
+ADD INDEX idx_status_create_time (status, create_time);
@@ -0,0 +1,7 @@
+-- 更新订单表，添加缓存桌位和用户信息字段，订单列表和详情不再查询桌位和用户
+ALTER TABLE `order`
+ADD COLUMN table_name VARCHAR(64) COMMENT '桌位名称（下单时缓存）' AFTER table_id,
+ADD COLUMN table_code VARCHAR(32) COMMENT '桌位二维码（下单时缓存）' AFTER table_name,
+ADD COLUMN user_name VARCHAR(32) COMMENT '用户昵称（下单时缓存）' AFTER table_code;
+
+-- 现有订单数据由应用启动后的回填任务（OrderSnapshotBackfill）按主键分批补齐，无需手动执行